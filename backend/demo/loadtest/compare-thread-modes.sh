@@ -0,0 +1,47 @@
+#!/usr/bin/env sh
+# Runs the k6 scenario against the backend twice, once on platform threads and once on
+# virtual threads, and prints throughput and p99 latency per endpoint for both modes.
+# Requires k6, jq and a reachable PostgreSQL (same SPRING_DATASOURCE_* variables as the app).
+set -eu
+
+cd "$(dirname "$0")/.."
+PORT="${SERVER_PORT:-8081}"
+OUT="target/loadtest"
+mkdir -p "$OUT"
+
+./mvnw -q -DskipTests package
+JAR="$(ls target/demo-*.jar | grep -v plain | head -n 1)"
+
+run_mode() {
+  mode="$1"
+  SPRING_THREADS_VIRTUAL_ENABLED="$mode" SERVER_PORT="$PORT" java -jar "$JAR" > "$OUT/app-virtual-$mode.log" 2>&1 &
+  app_pid=$!
+  trap 'kill $app_pid 2>/dev/null || true' EXIT
+
+  until curl -s -o /dev/null "http://localhost:$PORT/auth/login"; do sleep 1; done
+
+  k6 run --quiet -e BASE_URL="http://localhost:$PORT" \
+    --summary-export="$OUT/summary-virtual-$mode.json" loadtest/notes-and-login.js
+
+  kill "$app_pid"
+  wait "$app_pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+report() {
+  mode="$1"
+  jq -r --arg mode "$mode" '
+    .metrics as $m
+    | ["login", "myNotes"][] as $s
+    | [$mode, $s,
+       ($m["http_reqs{scenario:\($s)}"].rate // $m.http_reqs.rate | . * 100 | round / 100),
+       ($m["http_req_duration{scenario:\($s)}"]["p(99)"] | . * 100 | round / 100)]
+    | @tsv' "$OUT/summary-virtual-$mode.json"
+}
+
+run_mode false
+run_mode true
+
+printf 'virtual\tscenario\treq/s\tp99(ms)\n'
+report false
+report true
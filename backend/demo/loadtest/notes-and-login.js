@@ -0,0 +1,73 @@
+// k6 load test for /auth/login and /api/notes/my-notes.
+// Usage: k6 run -e BASE_URL=http://localhost:8081 --summary-export=summary.json notes-and-login.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const VUS = parseInt(__ENV.VUS || '200', 10);
+const DURATION = __ENV.DURATION || '60s';
+const USERNAME = __ENV.LT_USERNAME || 'loadtest';
+const PASSWORD = __ENV.LT_PASSWORD || 'loadtest-password';
+const SEED_NOTES = parseInt(__ENV.SEED_NOTES || '200', 10);
+
+export const options = {
+  scenarios: {
+    login: {
+      executor: 'constant-vus',
+      exec: 'login',
+      vus: Math.max(1, Math.floor(VUS / 10)),
+      duration: DURATION,
+    },
+    myNotes: {
+      executor: 'constant-vus',
+      exec: 'myNotes',
+      vus: VUS,
+      duration: DURATION,
+    },
+  },
+  summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+  // Always-true thresholds make k6 export per-scenario sub-metrics in the summary
+  thresholds: {
+    'http_reqs{scenario:login}': ['count>=0'],
+    'http_reqs{scenario:myNotes}': ['count>=0'],
+    'http_req_duration{scenario:login}': ['p(99)>=0'],
+    'http_req_duration{scenario:myNotes}': ['p(99)>=0'],
+  },
+};
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+export function setup() {
+  // Register is allowed to fail when the user already exists
+  http.post(`${BASE_URL}/auth/register`, JSON.stringify({
+    username: USERNAME,
+    email: `${USERNAME}@loadtest.local`,
+    password: PASSWORD,
+  }), { headers: JSON_HEADERS });
+
+  const res = http.post(`${BASE_URL}/auth/login`,
+    JSON.stringify({ username: USERNAME, password: PASSWORD }), { headers: JSON_HEADERS });
+  check(res, { 'setup login ok': (r) => r.status === 200 });
+  const token = res.json('token');
+
+  const auth = { headers: { ...JSON_HEADERS, Authorization: `Bearer ${token}` } };
+  const count = http.get(`${BASE_URL}/api/notes/count`, auth).json('count') || 0;
+  for (let i = count; i < SEED_NOTES; i++) {
+    http.post(`${BASE_URL}/api/notes/create/`,
+      JSON.stringify({ title: `Load test note ${i}`, content: `Body of load test note ${i}` }), auth);
+  }
+  return { token };
+}
+
+export function login() {
+  const res = http.post(`${BASE_URL}/auth/login`,
+    JSON.stringify({ username: USERNAME, password: PASSWORD }), { headers: JSON_HEADERS });
+  check(res, { 'login 200': (r) => r.status === 200 });
+}
+
+export function myNotes(data) {
+  const res = http.get(`${BASE_URL}/api/notes/my-notes?limit=50`, {
+    headers: { Authorization: `Bearer ${data.token}` },
+  });
+  check(res, { 'my-notes 200': (r) => r.status === 200 });
+}
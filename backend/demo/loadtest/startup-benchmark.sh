@@ -0,0 +1,93 @@
+#!/usr/bin/env sh
+# Measures time-to-first-request of the backend: from launching the JVM until
+# /actuator/health first answers 200. Runs the plain fat jar ("baseline") and the
+# startup-optimized layout the Dockerfile builds ("optimized": Spring AOT, extracted
+# layers, JDK 24+ AOT cache or AppCDS archive on older JDKs) RUNS times each and prints
+# the median and best time per mode.
+# Requires curl, GNU date and a reachable PostgreSQL (same SPRING_DATASOURCE_* variables
+# as the app); the first baseline start applies the migrations.
+set -eu
+
+cd "$(dirname "$0")/.."
+PORT="${SERVER_PORT:-8081}"
+RUNS="${RUNS:-5}"
+OUT="target/startup"
+JAR="demo-0.0.1-SNAPSHOT.jar"
+
+# Both builds clean target/, so the baseline jar waits outside it
+./mvnw -q -DskipTests clean package
+BASELINE_DIR="$(mktemp -d)"
+cp "target/$JAR" "$BASELINE_DIR/"
+
+./mvnw -q -DskipTests -Paot clean package
+mkdir -p "$OUT/baseline" "$OUT/optimized"
+mv "$BASELINE_DIR/$JAR" "$OUT/baseline/"
+rmdir "$BASELINE_DIR"
+java -Djarmode=tools -jar "target/$JAR" extract --layers --destination "$OUT/extracted"
+for layer in dependencies spring-boot-loader snapshot-dependencies application; do
+  cp -R "$OUT/extracted/$layer/." "$OUT/optimized/"
+done
+
+# Same training run as the Dockerfile
+if java -XX:AOTMode=off -version > /dev/null 2>&1; then
+  (cd "$OUT/optimized" \
+    && java -XX:AOTMode=record -XX:AOTConfiguration=app.aotconf \
+         -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+         -jar "$JAR" --app.flyway.migrate-on-start=false \
+    && java -XX:AOTMode=create -XX:AOTConfiguration=app.aotconf -XX:AOTCache=app.aot -jar "$JAR") \
+    > "$OUT/training.log" 2>&1
+  CACHE_OPTS="-XX:AOTCache=app.aot"
+else
+  (cd "$OUT/optimized" \
+    && java -XX:ArchiveClassesAtExit=app.jsa \
+         -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+         -jar "$JAR" --app.flyway.migrate-on-start=false) \
+    > "$OUT/training.log" 2>&1
+  CACHE_OPTS="-XX:SharedArchiveFile=app.jsa"
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+# Prints the milliseconds until the first 200 from the health endpoint
+time_to_first_request() {
+  dir="$1"
+  shift
+  start="$(now_ms)"
+  (cd "$dir" && SERVER_PORT="$PORT" exec java "$@" -jar "$JAR") > "$dir/app.log" 2>&1 &
+  app_pid=$!
+  trap 'kill $app_pid 2>/dev/null || true' EXIT
+
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health")" = "200" ]; do
+    if ! kill -0 "$app_pid" 2>/dev/null; then
+      echo "Application exited during startup, see $dir/app.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  echo $(( $(now_ms) - start ))
+
+  kill "$app_pid"
+  wait "$app_pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+report() {
+  mode="$1"
+  sort -n "$OUT/$mode.txt" | awk -v mode="$mode" '
+    { t[NR] = $1 }
+    END { printf "%s\t%d\t%d\t%d\n", mode, NR, t[int((NR + 1) / 2)], t[1] }'
+}
+
+i=0
+while [ "$i" -lt "$RUNS" ]; do
+  time_to_first_request "$OUT/baseline" >> "$OUT/baseline.txt"
+  # shellcheck disable=SC2086
+  time_to_first_request "$OUT/optimized" $CACHE_OPTS -Dspring.aot.enabled=true >> "$OUT/optimized.txt"
+  i=$((i + 1))
+done
+
+printf 'mode\truns\tmedian(ms)\tbest(ms)\n'
+report baseline
+report optimized
@@ -0,0 +1,97 @@
+package com.note.demo.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.note.demo.DemoApplication;
+import com.note.demo.model.Users;
+import com.note.demo.repository.NoteRepository;
+import com.note.demo.repository.UserRepository;
+import com.note.demo.service.NoteImportService;
+import com.note.demo.service.NoteService;
+import com.note.demo.service.UserService;
+
+/**
+ * The note count paths for one user with {@code noteCount} notes, against the database the
+ * app is configured for (SPRING_DATASOURCE_*). {@code materializeCollection} is what
+ * /api/notes/count did before it moved to SQL and serves as a baseline; {@code sqlCount}
+ * is the path with the counter cache off, {@code counterCache} the one with it on.
+ * The user and their notes are created for the run and deleted afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteCountBenchmark {
+
+    @Param({"100", "10000", "50000"})
+    public int noteCount;
+
+    private ConfigurableApplicationContext context;
+    private NoteRepository noteRepository;
+    private NoteService noteService;
+    private Users user;
+
+    @Setup
+    public void setup() throws IOException {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--app.notes.count-cache.enabled=true");
+        noteRepository = context.getBean(NoteRepository.class);
+        noteService = context.getBean(NoteService.class);
+
+        String name = "count-bench-" + System.nanoTime();
+        user = context.getBean(UserRepository.class).save(new Users(name, name + "@bench.local", "x"));
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < noteCount; i++) {
+            ndjson.append("{\"title\":\"Note ").append(i)
+                .append("\",\"content\":\"Benchmark content for note number ").append(i).append("\"}\n");
+        }
+        context.getBean(NoteImportService.class)
+            .importNdjson(user.getId(), new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        try {
+            context.getBean(UserService.class).adminDeleteUser(user.getId());
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public int materializeCollection() {
+        return noteRepository.findByUser_Id(user.getId()).size();
+    }
+
+    @Benchmark
+    public long sqlCount() {
+        return noteRepository.countByUser_Id(user.getId());
+    }
+
+    @Benchmark
+    public long counterCache() {
+        return noteService.countNotes(user.getId());
+    }
+}
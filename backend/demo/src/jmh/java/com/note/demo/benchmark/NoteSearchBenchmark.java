@@ -0,0 +1,99 @@
+package com.note.demo.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.note.demo.DemoApplication;
+import com.note.demo.dto.NoteSummary;
+import com.note.demo.dto.PageResponse;
+import com.note.demo.model.Users;
+import com.note.demo.repository.UserRepository;
+import com.note.demo.service.NoteImportService;
+import com.note.demo.service.NoteService;
+import com.note.demo.service.UserService;
+
+/**
+ * Note search as /api/notes/search runs it: NoteService.searchNotes and its full-text query
+ * on the notes_search_idx GIN index, against the database the app is configured for
+ * (SPRING_DATASOURCE_*). "meeting" matches one note in 50, "Project Plan" every note, so
+ * the second also measures ranking a large match set. {@code buildTsQuery} is the
+ * request-side part alone. The user and their notes are created for the run and deleted
+ * afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoteSearchBenchmark {
+
+    private static final int PAGE_SIZE = NoteService.DEFAULT_SEARCH_PAGE_SIZE;
+
+    @Param({"100", "10000"})
+    public int noteCount;
+
+    @Param({"meeting", "Project Plan"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private NoteService noteService;
+    private Users user;
+
+    @Setup
+    public void setup() throws IOException {
+        context = new SpringApplicationBuilder(DemoApplication.class)
+            .web(WebApplicationType.NONE)
+            .run();
+        noteService = context.getBean(NoteService.class);
+
+        String name = "search-bench-" + System.nanoTime();
+        user = context.getBean(UserRepository.class).save(new Users(name, name + "@bench.local", "x"));
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < noteCount; i++) {
+            String title = (i % 50 == 0) ? "Meeting notes " + i : "Note " + i;
+            ndjson.append("{\"title\":\"").append(title)
+                .append("\",\"content\":\"Some longer body text for note ").append(i)
+                .append(" covering the project plan and next steps.\"}\n");
+        }
+        context.getBean(NoteImportService.class)
+            .importNdjson(user.getId(), new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        try {
+            context.getBean(UserService.class).adminDeleteUser(user.getId());
+        } finally {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public PageResponse<NoteSummary> search() {
+        return noteService.searchNotes(user.getId(), query, 0, PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public String buildTsQuery() {
+        return NoteService.toPrefixTsQuery(query);
+    }
+}
@@ -0,0 +1,83 @@
+package com.note.demo.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.note.demo.dto.AuthResponse;
+import com.note.demo.dto.UserResponse;
+import com.note.demo.model.Notes;
+import com.note.demo.model.Users;
+
+/**
+ * Response construction and JSON serialization, configured like Spring Boot's ObjectMapper
+ * (java.time support, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBenchmark {
+
+    @Param({"50", "1000"})
+    public int noteCount;
+
+    private ObjectMapper objectMapper;
+    private Users user;
+    private List<Notes> notes;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        user = new Users("benchmark-user", "benchmark@example.com", "hash");
+        user.setId(42L);
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        user.setLastLogin(LocalDateTime.now());
+
+        notes = new ArrayList<>(noteCount);
+        for (int i = 0; i < noteCount; i++) {
+            Notes note = new Notes((long) i, "Note " + i, "Body of note " + i + " with a few words of content.", LocalDate.now());
+            note.setUser(user);
+            notes.add(note);
+        }
+    }
+
+    @Benchmark
+    public UserResponse userResponse() {
+        return new UserResponse(user);
+    }
+
+    @Benchmark
+    public AuthResponse authResponse() {
+        return new AuthResponse("token", user.getId(), user.getUsername(), user.getEmail(),
+            user.getFirstName(), user.getLastName(), user.getProfileLink(), user.getRole());
+    }
+
+    @Benchmark
+    public byte[] serializeNotes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(notes);
+    }
+}
@@ -0,0 +1,92 @@
+package com.note.demo.configuration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ClassPathResource;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * AOT-processed builds (-Paot) evaluate bean conditions at build time, so the properties
+ * below select beans once, in the build, and are ignored when set at runtime. The values
+ * seen by process-aot are recorded in the build; an AOT start with different values fails
+ * instead of silently running with the build's (e.g. actuator still on the public port).
+ */
+@Configuration
+public class AotBuildSettings {
+
+    static final String RESOURCE = "META-INF/aot-build-settings.properties";
+
+    static final List<String> FROZEN_PROPERTIES = List.of(
+        "spring.threads.virtual.enabled",
+        "management.server.port",
+        "app.diagnostics.query-stats.enabled");
+
+    @Autowired
+    private Environment environment;
+
+    // Runs during process-aot only; excluded from the generated bean definitions
+    @Bean
+    public static BeanFactoryInitializationAotProcessor aotBuildSettingsRecorder(Environment environment) {
+        return beanFactory -> (generationContext, code) -> {
+            StringWriter content = new StringWriter();
+            try {
+                current(environment).store(content, "Settings fixed by Spring AOT processing");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            generationContext.getGeneratedFiles().addResourceFile(RESOURCE, content.toString());
+        };
+    }
+
+    @PostConstruct
+    void checkRuntimeMatchesBuild() throws IOException {
+        ClassPathResource resource = new ClassPathResource(RESOURCE);
+        if (!AotDetector.useGeneratedArtifacts() || !resource.exists()) {
+            return;
+        }
+        Properties built = new Properties();
+        try (InputStream in = resource.getInputStream()) {
+            built.load(in);
+        }
+        Properties runtime = current(environment);
+        List<String> mismatches = new ArrayList<>();
+        for (String name : FROZEN_PROPERTIES) {
+            String builtValue = built.getProperty(name, "");
+            String runtimeValue = runtime.getProperty(name);
+            if (!builtValue.equals(runtimeValue)) {
+                mismatches.add(name + "=" + display(runtimeValue) + " (built with " + display(builtValue) + ")");
+            }
+        }
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("Settings differ from the AOT build, which fixed them at build time: "
+                + String.join(", ", mismatches)
+                + ". Rebuild with -Paot and the same settings, or start without -Dspring.aot.enabled=true.");
+        }
+    }
+
+    private static Properties current(Environment environment) {
+        Properties values = new Properties();
+        for (String name : FROZEN_PROPERTIES) {
+            String value = environment.getProperty(name);
+            values.setProperty(name, value == null ? "" : value.trim());
+        }
+        return values;
+    }
+
+    private static String display(String value) {
+        return value.isEmpty() ? "<unset>" : value;
+    }
+}
@@ -0,0 +1,32 @@
+package com.note.demo.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lets a replica start without running the migrations (app.flyway.migrate-on-start=false),
+ * for deployments that migrate once in a separate step and for the image's training run,
+ * which has no database. A plain property check rather than spring.flyway.enabled, which
+ * is fixed at build time in AOT-processed builds.
+ */
+@Configuration
+public class FlywayConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlywayConfig.class);
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${app.flyway.migrate-on-start:true}") boolean migrateOnStart) {
+        return flyway -> {
+            if (migrateOnStart) {
+                flyway.migrate();
+            } else {
+                logger.info("Skipping schema migrations (app.flyway.migrate-on-start=false)");
+            }
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package com.note.demo.configuration;
+
+import java.io.IOException;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.note.demo.service.QueryStatsRecorder;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Development aid: wraps the DataSource in a statement-counting proxy and reports, per
+ * request, the statements, JDBC time and rows it caused (see QueryStatsRecorder). Off by
+ * default; nothing is proxied unless app.diagnostics.query-stats.enabled is true.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.diagnostics.query-stats.enabled", havingValue = "true")
+public class QueryStatsConfig {
+
+    public static final String HEADER_STATEMENTS = "X-Query-Count";
+    public static final String HEADER_JDBC_TIME = "X-Query-Time-Ms";
+    public static final String HEADER_ROWS = "X-Query-Rows";
+
+    // Static so the DataSource is not created before the post-processor is registered
+    @Bean
+    public static BeanPostProcessor queryStatsDataSourceProxy(ObjectProvider<QueryStatsRecorder> recorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                        .listener(recorder.getObject())
+                        .proxyResultSet()
+                        .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryStatsFilter> queryStatsFilter(QueryStatsRecorder recorder,
+            @Value("${app.diagnostics.query-stats.headers:true}") boolean headers) {
+        FilterRegistrationBean<QueryStatsFilter> registration =
+            new FilterRegistrationBean<>(new QueryStatsFilter(recorder, headers));
+        // Outside Spring Security, so the per-request user lookup of the JWT filter is counted
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    static class QueryStatsFilter extends OncePerRequestFilter {
+        private final QueryStatsRecorder recorder;
+        private final boolean headers;
+
+        QueryStatsFilter(QueryStatsRecorder recorder, boolean headers) {
+            this.recorder = recorder;
+            this.headers = headers;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            QueryStatsRecorder.RequestStats stats = recorder.begin();
+            request.setAttribute(QueryStatsRecorder.RequestStats.REQUEST_ATTRIBUTE, stats);
+            StatsHeaderResponse wrapped = headers ? new StatsHeaderResponse(response, stats) : null;
+            try {
+                filterChain.doFilter(request, wrapped != null ? wrapped : response);
+                if (wrapped != null) {
+                    wrapped.writeHeaders();
+                }
+            } finally {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                recorder.end(request.getMethod() + " " + (pattern != null ? pattern : "unmapped"), stats);
+            }
+        }
+    }
+
+    // Headers must go out before the body commits the response, so they reflect the
+    // statements run up to that point; the log line at the end of the request has the totals
+    private static class StatsHeaderResponse extends OnCommittedResponseWrapper {
+        private final QueryStatsRecorder.RequestStats stats;
+        private boolean written;
+
+        StatsHeaderResponse(HttpServletResponse response, QueryStatsRecorder.RequestStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(HEADER_STATEMENTS, Integer.toString(stats.getStatements()));
+            setHeader(HEADER_JDBC_TIME, Long.toString(stats.getJdbcMillis()));
+            setHeader(HEADER_ROWS, Long.toString(stats.getRows()));
+        }
+    }
+}
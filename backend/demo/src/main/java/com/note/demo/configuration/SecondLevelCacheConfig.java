@@ -0,0 +1,81 @@
+package com.note.demo.configuration;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.note.demo.model.Notes;
+import com.note.demo.model.Users;
+
+/**
+ * Hibernate second-level cache on Caffeine through JCache. The regions are created here from
+ * app.cache.l2.* so their sizes and TTLs are configured like everything else, and handed to
+ * Hibernate as a ready CacheManager; a region Hibernate asks for but that is not created
+ * here fails startup instead of silently running unbounded. The regions are local to the
+ * process and nothing invalidates them across instances, so the cache is off by default
+ * (HIBERNATE_L2_CACHE_ENABLED) and meant for single-instance deployments.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Value("${app.cache.l2.users.max-size:10000}")
+    private long usersMaxSize;
+
+    @Value("${app.cache.l2.users.ttl:10m}")
+    private Duration usersTtl;
+
+    @Value("${app.cache.l2.notes.max-size:50000}")
+    private long notesMaxSize;
+
+    @Value("${app.cache.l2.notes.ttl:10m}")
+    private Duration notesTtl;
+
+    @Value("${app.cache.l2.queries.max-size:20000}")
+    private long queriesMaxSize;
+
+    @Value("${app.cache.l2.queries.ttl:5m}")
+    private Duration queriesTtl;
+
+    // From a provider of its own rather than the JVM-wide Caching registry, so every
+    // application context in the JVM (e.g. several test contexts) gets its own regions
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = new CaffeineCachingProvider()
+            .getCacheManager(URI.create("hibernate-l2"), getClass().getClassLoader());
+        cacheManager.createCache(Users.class.getName(), region(usersMaxSize, usersTtl));
+        cacheManager.createCache(Notes.class.getName(), region(notesMaxSize, notesTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+            region(queriesMaxSize, queriesTtl));
+        // Never bounded: an evicted table timestamp would let cached query results outlive
+        // a change to that table
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+            new CaffeineConfiguration<Object, Object>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        return new CaffeineConfiguration<Object, Object>()
+            .setMaximumSize(OptionalLong.of(maxSize))
+            .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()))
+            .setStatisticsEnabled(true);
+    }
+}
@@ -3,16 +3,29 @@ package com.note.demo.controller;
 import com.note.demo.dto.*;
 import com.note.demo.model.Role;
 import com.note.demo.model.Users;
+import com.note.demo.security.BoundedPasswordEncoder;
+import com.note.demo.security.CustomUserDetailsService;
+import com.note.demo.security.JwtUtils;
+import com.note.demo.security.PasswordHashingBusyException;
+import com.note.demo.service.DashboardStatsService;
+import com.note.demo.service.NoteEventBroadcaster;
+import com.note.demo.service.QueryStatsRecorder;
+import com.note.demo.service.SecondLevelCacheStats;
 import com.note.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -22,16 +35,49 @@ public class AdminController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private NoteEventBroadcaster noteEventBroadcaster;
+
+    @Autowired
+    private SecondLevelCacheStats secondLevelCacheStats;
+
+    @Autowired
+    private QueryStatsRecorder queryStatsRecorder;
+
     // ==================== USER MANAGEMENT ====================
 
     @GetMapping("/users")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastLoginFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime lastLoginTo,
+            @PageableDefault(size = 20, sort = "id") Pageable pageable) {
         try {
-            List<Users> users = userService.getAllUsers();
-            List<UserResponse> userResponses = users.stream()
-                .map(UserResponse::new)
-                .collect(Collectors.toList());
-            return ResponseEntity.ok(userResponses);
+            UserSearchCriteria criteria = new UserSearchCriteria();
+            criteria.setRole(role);
+            criteria.setQuery(q);
+            criteria.setCreatedFrom(createdFrom);
+            criteria.setCreatedTo(createdTo);
+            criteria.setLastLoginFrom(lastLoginFrom);
+            criteria.setLastLoginTo(lastLoginTo);
+
+            Page<UserResponse> users = userService.searchUsers(criteria, pageable);
+            return ResponseEntity.ok(PageResponse.of(users));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -61,6 +107,8 @@ public class AdminController {
         try {
             Users user = userService.adminCreateUser(request);
             return ResponseEntity.ok(new UserResponse(user));
+        } catch (PasswordHashingBusyException e) {
+            return busyResponse();
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -75,6 +123,8 @@ public class AdminController {
         try {
             Users user = userService.adminUpdateUser(userId, request);
             return ResponseEntity.ok(new UserResponse(user));
+        } catch (PasswordHashingBusyException e) {
+            return busyResponse();
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -101,11 +151,7 @@ public class AdminController {
     @GetMapping("/dashboard/stats")
     public ResponseEntity<?> getDashboardStats() {
         try {
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalUsers", userService.countUsers());
-            stats.put("totalAdmins", userService.countUsersByRole(Role.ADMIN));
-            stats.put("totalRegularUsers", userService.countUsersByRole(Role.USER));
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(dashboardStatsService.getStats());
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -113,6 +159,18 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/system/stats")
+    public ResponseEntity<?> getSystemStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("principalCache", userDetailsService.getCacheStats());
+        stats.put("jwtCache", jwtUtils.getCacheStats());
+        stats.put("passwordHashing", passwordEncoder.getStats());
+        stats.put("noteStreams", noteEventBroadcaster.getStats());
+        stats.put("secondLevelCache", secondLevelCacheStats.getStats());
+        stats.put("queryStats", queryStatsRecorder.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
     // ==================== ROLE MANAGEMENT ====================
 
     @PutMapping("/users/{userId}/role")
@@ -147,4 +205,13 @@ public class AdminController {
             return ResponseEntity.badRequest().body(error);
         }
     }
+
+    // Password hashing pool is saturated: shed load instead of queueing
+    private ResponseEntity<?> busyResponse() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Server is busy, please retry shortly");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(error);
+    }
 }
@@ -4,8 +4,14 @@ import org.springframework.web.bind.annotation.*;
 import com.note.demo.dto.*;
 import com.note.demo.model.Users;
 import com.note.demo.security.JwtUtils;
+import com.note.demo.security.PasswordHashingBusyException;
 import com.note.demo.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -13,6 +19,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,7 +27,9 @@ import java.util.Map;
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private AuthenticationManager authenticationManager;
     
@@ -34,7 +43,7 @@ public class AuthController {
     public ResponseEntity<?> register(@RequestBody RegisterRequest request) {
         try {
             Users user = userService.register(request);
-            String token = jwtUtils.generateTokenFromUsername(user.getUsername());
+            String token = jwtUtils.generateTokenForUser(user);
             
             AuthResponse response = new AuthResponse(
                 token,
@@ -48,6 +57,8 @@ public class AuthController {
             );
             
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return busyResponse();
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -63,13 +74,11 @@ public class AuthController {
             );
             
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            String token = jwtUtils.generateJwtToken(authentication);
-            
-
 
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             Users user = userService.findByUsername(userDetails.getUsername());
-            userService.updateLastLogin(user.getUsername());
+            userService.recordLogin(user);
+            String token = jwtUtils.generateTokenForUser(user);
             
             AuthResponse response = new AuthResponse(
                 token,
@@ -82,10 +91,16 @@ public class AuthController {
                 user.getRole()
             );
 
-            System.out.println("got into login ");
-            
+            logger.debug("User {} logged in", user.getUsername());
+
             return ResponseEntity.ok(response);
+        } catch (PasswordHashingBusyException e) {
+            return busyResponse();
         } catch (Exception e) {
+            // The authentication provider may wrap the rejection
+            if (e.getCause() instanceof PasswordHashingBusyException) {
+                return busyResponse();
+            }
             Map<String, String> error = new HashMap<>();
             error.put("error", "Invalid username or password");
             return ResponseEntity.status(401).body(error);
@@ -93,13 +108,19 @@ public class AuthController {
     }
     
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal UserDetails userDetails, WebRequest webRequest) {
         if (userDetails == null) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Not authenticated");
             return ResponseEntity.status(401).body(error);
         }
         
+        // Checked against the version columns before the user is loaded
+        String etag = userService.profileEtag(userDetails.getUsername());
+        if (ConditionalRequests.matches(webRequest, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+        
         Users user = userService.findByUsername(userDetails.getUsername());
         
         if (user == null) {
@@ -108,7 +129,11 @@ public class AuthController {
             return ResponseEntity.status(404).body(error);
         }
         
-        return ResponseEntity.ok(new UserResponse(user));
+        // Revalidated with If-None-Match instead of Spring Security's default no-store
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(userService.profileEtag(user))
+            .body(new UserResponse(user));
     }
     
     
@@ -127,7 +152,7 @@ public ResponseEntity<?> updateProfile(
         
         Users updatedUser = userService.updateProfileById(userId, request);
         
-        String token = jwtUtils.generateTokenFromUsername(updatedUser.getUsername());
+        String token = jwtUtils.generateTokenForUser(updatedUser);
         
         AuthResponse response = new AuthResponse(
             token,
@@ -141,6 +166,8 @@ public ResponseEntity<?> updateProfile(
         );
         
         return ResponseEntity.ok(response);
+    } catch (PasswordHashingBusyException e) {
+        return busyResponse();
     } catch (RuntimeException e) {
         Map<String, String> error = new HashMap<>();
         error.put("error", e.getMessage());
@@ -171,4 +198,13 @@ public ResponseEntity<?> updateProfile(
             return ResponseEntity.badRequest().body(error);
         }
     }
-}
\ No newline at end of file
+
+    // Password hashing pool is saturated: shed load instead of queueing
+    private ResponseEntity<?> busyResponse() {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Server is busy, please retry shortly");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(error);
+    }
+}
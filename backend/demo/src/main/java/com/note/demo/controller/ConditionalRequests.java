@@ -0,0 +1,44 @@
+package com.note.demo.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * If-None-Match pre-checks against a tag read straight from the database, answered before
+ * the entity is loaded. Unlike WebRequest.checkNotModified this leaves the response alone
+ * when the tag does not match: the 200 must carry the tag of the entity actually loaded,
+ * which may come from the second-level cache and be older than the database.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    // Weak comparison, as If-None-Match requires
+    static boolean matches(WebRequest webRequest, String etag) {
+        String[] headers = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (etag == null || headers == null) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        for (String header : headers) {
+            for (ETag candidate : ETag.parse(header)) {
+                if (candidate.isWildcard() || candidate.compare(current, false)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .build();
+    }
+}
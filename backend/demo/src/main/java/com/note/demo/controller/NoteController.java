@@ -3,19 +3,34 @@ package com.note.demo.controller;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.note.demo.dto.CursorPage;
+import com.note.demo.dto.NoteBatchRequest;
+import com.note.demo.dto.NoteChanges;
+import com.note.demo.dto.NoteBatchResult;
+import com.note.demo.dto.NoteImportResult;
+import com.note.demo.dto.NoteSummary;
+import com.note.demo.dto.PageResponse;
 import com.note.demo.model.Notes;
 import com.note.demo.model.Users;
 import com.note.demo.repository.NoteRepository;
+import com.note.demo.service.NoteEventBroadcaster;
+import com.note.demo.service.NoteExportService;
+import com.note.demo.service.NoteImportService;
 import com.note.demo.service.NoteService;
+import com.note.demo.service.NoteSyncService;
 import com.note.demo.service.UserService;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,41 +38,85 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/notes/")
 public class NoteController {
+
+    // Lets browsers keep the body and revalidate it with If-None-Match on every use,
+    // instead of Spring Security's default no-store
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
     
     @Autowired
     NoteRepository noteRepository;
 
     @Autowired
     NoteService noteService;
+
+    @Autowired
+    NoteExportService noteExportService;
+
+    @Autowired
+    NoteImportService noteImportService;
+
+    @Autowired
+    NoteSyncService noteSyncService;
+
+    @Autowired
+    NoteEventBroadcaster noteEventBroadcaster;
     
     @Autowired
     UserService userService;
 
     @GetMapping("/my-notes")
-    public ResponseEntity<?> getMyNotes(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<?> getMyNotes(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + NoteService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            @AuthenticationPrincipal UserDetails userDetails,
+            WebRequest webRequest) {
         if (userDetails == null) {
             return ResponseEntity.status(401).body("Not authenticated");
         }
-        Users user = userService.findByUsername(userDetails.getUsername());
-        if (user == null) {
+        Long userId = userService.findIdByUsername(userDetails.getUsername());
+        if (userId == null) {
             return ResponseEntity.status(401).body("User not found");
         }
-        List<Notes> notes = user.getNotes();
-        return ResponseEntity.ok(notes);
+        String etag = noteService.collectionEtag(userId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        try {
+            CursorPage<NoteSummary> page = noteService.getNotesPage(userId, after, limit, fields);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<?> getNoteByUserId(@PathVariable Long userId) {
-        List<Notes> notes = noteService.getNotesByUserId(userId);
-        if(!notes.isEmpty()){
-            return ResponseEntity.ok(notes);
+    public ResponseEntity<?> getNoteByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + NoteService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+        String etag = noteService.collectionEtag(userId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
         }
-        else{
-            return ResponseEntity.notFound().build();
+        try {
+            CursorPage<NoteSummary> page = noteService.getNotesPage(userId, after, limit, fields);
+            if (page.getItems().isEmpty() && after == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
@@ -81,13 +140,7 @@ public class NoteController {
                 return ResponseEntity.badRequest().body("Content is required");
             }
             
-            Notes note = new Notes();
-            note.setTitle(request.getTitle().trim());
-            note.setContent(request.getContent().trim());
-            note.setCreated_at(LocalDate.now());
-            note.setUser(user);
-            
-            Notes newNote = noteRepository.save(note);
+            Notes newNote = noteService.createNote(user, request.getTitle().trim(), request.getContent().trim());
             return ResponseEntity.ok(newNote);
         }
         catch(Exception e){
@@ -95,25 +148,105 @@ public class NoteController {
         }
     }
     
-    @GetMapping("/note/{noteId}")
-    public ResponseEntity<?> getNoteById(@PathVariable Long noteId, @AuthenticationPrincipal UserDetails userDetails) {
+    @PostMapping("/batch")
+    public ResponseEntity<?> batchNotes(
+            @RequestBody NoteBatchRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            Users user = getAuthenticatedUser(userDetails);
+            if (user == null) {
+                return ResponseEntity.status(401).body("Not authenticated");
+            }
+
+            List<NoteBatchResult> results = noteService.applyBatch(user, request);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error applying batch: " + e.getMessage());
+        }
+    }
+    
+    // Typed as StreamingResponseBody: Spring MVC picks the streaming return value handler by
+    // the declared body type and would otherwise look for a message converter for the lambda
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportNotes(
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        Users user = getAuthenticatedUser(userDetails);
+        if (user == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        Long userId = user.getId();
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192)) {
+                    noteExportService.exportNotes(userId, gzipOut);
+                }
+            } else {
+                noteExportService.exportNotes(userId, out);
+            }
+        };
+
+        // A gzip export is a .gz file, not a compressed transfer: without Content-Encoding
+        // browsers and HTTP clients save it as sent instead of decoding it
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : "application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson" + (gzip ? ".gz" : "") + "\"")
+            .body(body);
+    }
+    
+    @PostMapping("/import")
+    public ResponseEntity<?> importNotes(
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
         try {
             Users user = getAuthenticatedUser(userDetails);
             if (user == null) {
                 return ResponseEntity.status(401).body("Not authenticated");
             }
 
+            String contentType = request.getContentType();
+            NoteImportResult result;
+            if (contentType != null && contentType.startsWith("text/csv")) {
+                result = noteImportService.importCsv(user.getId(), request.getInputStream());
+            } else {
+                result = noteImportService.importNdjson(user.getId(), request.getInputStream());
+            }
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error importing notes: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/note/{noteId}")
+    public ResponseEntity<?> getNoteById(@PathVariable Long noteId, @AuthenticationPrincipal UserDetails userDetails,
+                                         WebRequest webRequest) {
+        try {
+            Long userId = userDetails != null ? userService.findIdByUsername(userDetails.getUsername()) : null;
+            if (userId == null) {
+                return ResponseEntity.status(401).body("Not authenticated");
+            }
+
+            // Answered from the version column alone when the client already has this version
+            String etag = noteService.noteEtag(noteId, userId);
+            if (ConditionalRequests.matches(webRequest, etag)) {
+                return ConditionalRequests.notModified(etag);
+            }
+
             Optional<Notes> noteOpt = noteRepository.findById(noteId);
             if (noteOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
             Notes note = noteOpt.get();
-            if (!note.getUser().getId().equals(user.getId())) {
+            if (!note.getUser().getId().equals(userId)) {
                 return ResponseEntity.status(403).body("Access denied: This note doesn't belong to you");
             }
 
-            return ResponseEntity.ok(note);
+            // Tagged with the version of the note served, which may be a cached copy
+            return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(noteService.noteEtag(note)).body(note);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -140,14 +273,12 @@ public class NoteController {
                 return ResponseEntity.status(403).body("Access denied: You can only edit your own notes");
             }
 
-            if (request.getTitle() != null && !request.getTitle().trim().isEmpty()) {
-                note.setTitle(request.getTitle().trim());
-            }
-            if (request.getContent() != null && !request.getContent().trim().isEmpty()) {
-                note.setContent(request.getContent().trim());
-            }
+            String title = request.getTitle() != null && !request.getTitle().trim().isEmpty()
+                ? request.getTitle().trim() : null;
+            String content = request.getContent() != null && !request.getContent().trim().isEmpty()
+                ? request.getContent().trim() : null;
 
-            Notes updatedNote = noteRepository.save(note);
+            Notes updatedNote = noteService.updateNote(note, title, content);
             return ResponseEntity.ok(updatedNote);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error updating note: " + e.getMessage());
@@ -172,7 +303,7 @@ public class NoteController {
                 return ResponseEntity.status(403).body("Access denied: You can only delete your own notes");
             }
 
-            noteRepository.delete(note);
+            noteService.deleteNote(note);
             return ResponseEntity.ok().body("Note deleted successfully");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error deleting note: " + e.getMessage());
@@ -181,7 +312,10 @@ public class NoteController {
     
     @GetMapping("/search")
     public ResponseEntity<?> searchNotes(
-            @org.springframework.web.bind.annotation.RequestParam String query,
+            @RequestParam String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + NoteService.DEFAULT_SEARCH_PAGE_SIZE) int size,
+            @RequestParam(required = false) String fields,
             @AuthenticationPrincipal UserDetails userDetails) {
         try {
             Users user = getAuthenticatedUser(userDetails);
@@ -193,27 +327,59 @@ public class NoteController {
                 return ResponseEntity.badRequest().body("Search query is required");
             }
 
-            List<Notes> allNotes = user.getNotes();
-            List<Notes> filteredNotes = allNotes.stream()
-                .filter(note -> note.getTitle().toLowerCase().contains(query.toLowerCase()) ||
-                               note.getContent().toLowerCase().contains(query.toLowerCase()))
-                .toList();
-                
-            return ResponseEntity.ok(filteredNotes);
+            PageResponse<NoteSummary> results = noteService.searchNotes(user.getId(), query, page, size, fields);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error searching notes: " + e.getMessage());
         }
     }
     
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "" + NoteSyncService.DEFAULT_PAGE_SIZE) int limit,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = userDetails != null ? userService.findIdByUsername(userDetails.getUsername()) : null;
+        if (userId == null) {
+            return ResponseEntity.status(401).body("Not authenticated");
+        }
+        try {
+            NoteChanges changes = noteSyncService.getChanges(userId, since, limit);
+            return ResponseEntity.ok(changes);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // Pushes created/updated/deleted events for the caller's notes; "resync" means events were
+    // dropped and the client should catch up through /changes
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamChanges(@AuthenticationPrincipal UserDetails userDetails) {
+        Long userId = userDetails != null ? userService.findIdByUsername(userDetails.getUsername()) : null;
+        if (userId == null) {
+            return ResponseEntity.status(401).body("Not authenticated");
+        }
+        try {
+            SseEmitter emitter = noteEventBroadcaster.subscribe(userId);
+            return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(429).body(e.getMessage());
+        }
+    }
+    
     @GetMapping("/count")
     public ResponseEntity<?> getNotesCount(@AuthenticationPrincipal UserDetails userDetails) {
         try {
-            Users user = getAuthenticatedUser(userDetails);
-            if (user == null) {
+            Long userId = userDetails != null ? userService.findIdByUsername(userDetails.getUsername()) : null;
+            if (userId == null) {
                 return ResponseEntity.status(401).body("Not authenticated");
             }
 
-            long count = user.getNotes().size();
+            long count = noteService.countNotes(userId);
             return ResponseEntity.ok().body("{\"count\": " + count + "}");
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error getting notes count: " + e.getMessage());
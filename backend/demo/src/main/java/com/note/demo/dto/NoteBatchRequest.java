@@ -0,0 +1,68 @@
+package com.note.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NoteBatchRequest {
+    private List<Item> create = new ArrayList<>();
+    private List<Item> update = new ArrayList<>();
+    private List<Long> delete = new ArrayList<>();
+
+    public List<Item> getCreate() {
+        return create;
+    }
+
+    public void setCreate(List<Item> create) {
+        this.create = create != null ? create : new ArrayList<>();
+    }
+
+    public List<Item> getUpdate() {
+        return update;
+    }
+
+    public void setUpdate(List<Item> update) {
+        this.update = update != null ? update : new ArrayList<>();
+    }
+
+    public List<Long> getDelete() {
+        return delete;
+    }
+
+    public void setDelete(List<Long> delete) {
+        this.delete = delete != null ? delete : new ArrayList<>();
+    }
+
+    public int size() {
+        return create.size() + update.size() + delete.size();
+    }
+
+    public static class Item {
+        private Long id;
+        private String title;
+        private String content;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
+        public void setContent(String content) {
+            this.content = content;
+        }
+    }
+}
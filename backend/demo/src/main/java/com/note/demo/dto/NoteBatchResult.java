@@ -0,0 +1,71 @@
+package com.note.demo.dto;
+
+/**
+ * Outcome of one operation of a batch request. {@code index} is the position of the item
+ * in its create/update/delete array.
+ */
+public class NoteBatchResult {
+    private String op;
+    private int index;
+    private Long id;
+    private String status;
+    private String error;
+
+    public NoteBatchResult() {}
+
+    public NoteBatchResult(String op, int index, Long id, String status, String error) {
+        this.op = op;
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static NoteBatchResult ok(String op, int index, Long id) {
+        return new NoteBatchResult(op, index, id, "ok", null);
+    }
+
+    public static NoteBatchResult failed(String op, int index, Long id, String status, String error) {
+        return new NoteBatchResult(op, index, id, status, error);
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,98 @@
+package com.note.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import com.note.demo.model.Notes;
+
+/**
+ * One page of a delta sync: notes created or updated and ids of notes deleted since the
+ * client's cursor. Apply {@code upserts} and {@code deleted} and keep {@code nextCursor}
+ * for the next call; while {@code hasMore} is true, call again right away. When
+ * {@code reset} is true the cursor is too old to be answered: drop the local copy and
+ * sync again without a cursor.
+ */
+public class NoteChanges {
+    private static final String CURSOR_PREFIX = "seq:";
+
+    private List<Notes> upserts = new ArrayList<>();
+    private List<Long> deleted = new ArrayList<>();
+    private String nextCursor;
+    private boolean hasMore;
+    private boolean reset;
+
+    public static NoteChanges resetRequired() {
+        NoteChanges changes = new NoteChanges();
+        changes.reset = true;
+        return changes;
+    }
+
+    // The cursor carries the last change seen and when the client was last fully caught
+    // up, which decides whether the tombstones it needs may already have been purged
+    public static String encodeCursor(long changeSeq, long syncedAtMillis) {
+        String raw = CURSOR_PREFIX + changeSeq + ":" + syncedAtMillis;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns {changeSeq, syncedAtMillis}, or null for an absent cursor
+    public static long[] decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            String[] parts = raw.substring(CURSOR_PREFIX.length()).split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) };
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public List<Notes> getUpserts() {
+        return upserts;
+    }
+
+    public void setUpserts(List<Notes> upserts) {
+        this.upserts = upserts;
+    }
+
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public void setReset(boolean reset) {
+        this.reset = reset;
+    }
+}
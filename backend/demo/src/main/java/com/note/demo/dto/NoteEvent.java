@@ -0,0 +1,83 @@
+package com.note.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.note.demo.model.Notes;
+
+/**
+ * A change pushed on the note stream. {@code note} carries the summary for creates and
+ * updates; a {@code resync} event means events were dropped and the client should catch
+ * up through the changes endpoint.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NoteEvent {
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String RESYNC = "resync";
+
+    private String type;
+    private Long noteId;
+    private Long changeSeq;
+    private NoteSummary note;
+
+    public NoteEvent() {}
+
+    public NoteEvent(String type, Long noteId, Long changeSeq, NoteSummary note) {
+        this.type = type;
+        this.noteId = noteId;
+        this.changeSeq = changeSeq;
+        this.note = note;
+    }
+
+    public static NoteEvent created(Notes note) {
+        return new NoteEvent(CREATED, note.getId(), note.getChange_seq(), summaryOf(note));
+    }
+
+    public static NoteEvent updated(Notes note) {
+        return new NoteEvent(UPDATED, note.getId(), note.getChange_seq(), summaryOf(note));
+    }
+
+    public static NoteEvent deleted(Long noteId, long changeSeq) {
+        return new NoteEvent(DELETED, noteId, changeSeq, null);
+    }
+
+    public static NoteEvent resync() {
+        return new NoteEvent(RESYNC, null, null, null);
+    }
+
+    private static NoteSummary summaryOf(Notes note) {
+        return new NoteSummary(note.getId(), note.getTitle(), note.getCreated_at(), note.getPreview());
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getNoteId() {
+        return noteId;
+    }
+
+    public void setNoteId(Long noteId) {
+        this.noteId = noteId;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public NoteSummary getNote() {
+        return note;
+    }
+
+    public void setNote(NoteSummary note) {
+        this.note = note;
+    }
+}
@@ -0,0 +1,54 @@
+package com.note.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a bulk note import. Only the first few error messages are kept so a
+ * badly formatted archive cannot grow the report without bound.
+ */
+public class NoteImportResult {
+    private static final int MAX_ERRORS = 20;
+
+    private long imported;
+    private long failed;
+    private int batches;
+    private boolean aborted;
+    private List<String> errors = new ArrayList<>();
+
+    public void addImported(long count) {
+        imported += count;
+        batches++;
+    }
+
+    public void addFailure(long count, String error) {
+        failed += count;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    public void setAborted(boolean aborted) {
+        this.aborted = aborted;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,101 @@
+package com.note.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * List view of a note: everything but the body. The full content is only served by
+ * {@code GET /api/notes/note/{noteId}}. Fields left out of a {@code fields=} selection
+ * are null and omitted from the JSON. The selection shapes the response only: the summary
+ * queries always read all four small columns, and never the content.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NoteSummary {
+    public static final Set<String> ALL_FIELDS = Set.of("id", "title", "created_at", "preview");
+
+    private Long id;
+    private String title;
+    private LocalDate created_at;
+    private String preview;
+
+    public NoteSummary() {}
+
+    public NoteSummary(Long id, String title, LocalDate created_at, String preview) {
+        this.id = id;
+        this.title = title;
+        this.created_at = created_at;
+        this.preview = preview;
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} parameter. Null or blank selects every field;
+     * the id is always kept because cursors and follow-up requests need it.
+     */
+    public static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL_FIELDS;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim().toLowerCase(Locale.ROOT);
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!ALL_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + " (allowed: id, title, created_at, preview)");
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    public NoteSummary retain(Set<String> fields) {
+        if (!fields.contains("title")) {
+            title = null;
+        }
+        if (!fields.contains("created_at")) {
+            created_at = null;
+        }
+        if (!fields.contains("preview")) {
+            preview = null;
+        }
+        return this;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDate getCreated_at() {
+        return created_at;
+    }
+
+    public void setCreated_at(LocalDate created_at) {
+        this.created_at = created_at;
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public void setPreview(String preview) {
+        this.preview = preview;
+    }
+}
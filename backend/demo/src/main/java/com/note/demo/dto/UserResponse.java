@@ -17,6 +17,20 @@ public class UserResponse {
 
     public UserResponse() {}
 
+    // Used by the admin listing's constructor-expression query
+    public UserResponse(Long id, String username, String email, String firstName, String lastName,
+                        String profileLink, Role role, LocalDateTime createdAt, LocalDateTime lastLogin) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.profileLink = profileLink;
+        this.role = role;
+        this.createdAt = createdAt;
+        this.lastLogin = lastLogin;
+    }
+
     public UserResponse(Users user) {
         this.id = user.getId();
         this.username = user.getUsername();
@@ -0,0 +1,65 @@
+package com.note.demo.dto;
+
+import com.note.demo.model.Role;
+import java.time.LocalDateTime;
+
+/**
+ * Filters for the admin user listing. Every field is optional; {@code query} matches the
+ * start of the username or email, case-insensitively.
+ */
+public class UserSearchCriteria {
+    private Role role;
+    private String query;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private LocalDateTime lastLoginFrom;
+    private LocalDateTime lastLoginTo;
+
+    public Role getRole() {
+        return role;
+    }
+
+    public void setRole(Role role) {
+        this.role = role;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public LocalDateTime getLastLoginFrom() {
+        return lastLoginFrom;
+    }
+
+    public void setLastLoginFrom(LocalDateTime lastLoginFrom) {
+        this.lastLoginFrom = lastLoginFrom;
+    }
+
+    public LocalDateTime getLastLoginTo() {
+        return lastLoginTo;
+    }
+
+    public void setLastLoginTo(LocalDateTime lastLoginTo) {
+        this.lastLoginTo = lastLoginTo;
+    }
+}
@@ -0,0 +1,79 @@
+package com.note.demo.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+/**
+ * Marks a deleted note so delta sync can tell clients to drop it. Kept for
+ * app.notes.sync.tombstone-retention-days; older sync cursors must resync from scratch.
+ */
+@Entity
+@Table(name = "note_tombstones", indexes = {
+    @Index(name = "note_tombstones_user_change_idx", columnList = "user_id, change_seq"),
+    @Index(name = "note_tombstones_deleted_at_idx", columnList = "deleted_at")
+})
+public class NoteTombstone implements Persistable<Long> {
+    // The deleted note's id; note ids are never reused
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    // Ids are assigned, so save() would otherwise merge and SELECT before every insert
+    @Transient
+    private boolean isNew = true;
+
+    public NoteTombstone() {}
+
+    public NoteTombstone(Long id, Long userId, Long changeSeq, LocalDateTime deletedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
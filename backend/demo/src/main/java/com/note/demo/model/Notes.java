@@ -1,24 +1,61 @@
 package com.note.demo.model;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+    @Index(name = "notes_user_change_idx", columnList = "user_id, change_seq"),
+    @Index(name = "notes_user_id_idx", columnList = "user_id, id"),
+    @Index(name = "notes_user_created_at_idx", columnList = "user_id, created_at")
+})
 public class Notes {
+    public static final int PREVIEW_LENGTH = 200;
+
+    // Sequence ids let Hibernate batch inserts; IDENTITY forces one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notes_seq")
+    @SequenceGenerator(name = "notes_seq", sequenceName = "notes_seq", allocationSize = 50)
     private Long  id ;
     private String title;
+    @Column(columnDefinition = "text")
     private String content;
     private LocalDate created_at;
+    private LocalDateTime updated_at;
+
+    // Position in the owner's change sequence (see NoteChangeSequence), set on every write
+    private Long change_seq;
+
+    // First characters of the content, kept in sync by setContent so list queries never read the body
+    @JsonIgnore
+    @Column(length = PREVIEW_LENGTH)
+    private String preview;
+
+    // Optimistic locking; also the ETag of GET /note/{noteId}
+    @Version
+    @JsonIgnore
+    private Long version;
 
     @ManyToOne 
     @JoinColumn(name = "user_id", nullable = false) 
@@ -30,7 +67,7 @@ public class Notes {
     public Notes(Long id, String title, String content, LocalDate created_at){
         this.id = id;
         this.title = title;
-        this.content = content;
+        setContent(content);
         this.created_at = created_at;
     }
     public Long getId() {
@@ -55,6 +92,24 @@ public class Notes {
 
     public void setContent(String content) {
         this.content = content;
+        this.preview = previewOf(content);
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public static String previewOf(String content) {
+        if (content == null || content.length() <= PREVIEW_LENGTH) {
+            return content;
+        }
+        // Do not cut a surrogate pair in half
+        int end = Character.isHighSurrogate(content.charAt(PREVIEW_LENGTH - 1)) ? PREVIEW_LENGTH - 1 : PREVIEW_LENGTH;
+        return content.substring(0, end);
     }
 
     public LocalDate getCreated_at() {
@@ -65,6 +120,20 @@ public class Notes {
         this.created_at = created_at;
     }
 
+    public LocalDateTime getUpdated_at() {
+        return updated_at;
+    }
+
+    public Long getChange_seq() {
+        return change_seq;
+    }
+
+    // Called by NoteService for every create and update
+    public void markChanged(long changeSeq) {
+        this.change_seq = changeSeq;
+        this.updated_at = LocalDateTime.now();
+    }
+
     public Users getUser() {
         return user;
     }
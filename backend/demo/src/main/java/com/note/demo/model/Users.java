@@ -1,6 +1,8 @@
 package com.note.demo.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -8,15 +10,23 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(uniqueConstraints = {
+    @UniqueConstraint(name = "users_username_key", columnNames = "username"),
+    @UniqueConstraint(name = "users_email_key", columnNames = "email")
+}, indexes = {
+    @Index(name = "users_role_idx", columnList = "role"),
+    @Index(name = "users_created_at_idx", columnList = "created_at"),
+    @Index(name = "users_last_login_idx", columnList = "last_login")
+})
 public class Users {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(unique = true)
     private String username;
     
-    @Column(unique = true)
     private String email;
     
     @JsonIgnore
@@ -37,6 +47,11 @@ public class Users {
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
     
+    // Optimistic locking; together with lastLogin it is the ETag of /auth/me
+    @Version
+    @JsonIgnore
+    private Long version;
+    
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<Notes> notes;
@@ -51,6 +66,10 @@ public class Users {
         this.createdAt = LocalDateTime.now();
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public Long getId() { 
         return id; 
     }
@@ -1,14 +1,104 @@
 package com.note.demo.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.note.demo.dto.NoteSummary;
 import com.note.demo.model.Notes;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.QueryHint;
 
 
 public interface NoteRepository extends JpaRepository<Notes, Long>{
 
+    int EXPORT_FETCH_SIZE = 500;
+
     Optional<Notes> findById(Long id);
+
+    // Version of a note owned by the user, for conditional GETs; empty if missing or not owned
+    @Query("SELECT n.version FROM Notes n WHERE n.id = :id AND n.user.id = :userId")
+    Optional<Long> findVersion(@Param("id") Long id, @Param("userId") Long userId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Notes> findByUser_Id(Long userId);
-}
\ No newline at end of file
+
+    // One statement for all of a user's notes; must run in the caller's transaction
+    @Modifying
+    @Query("DELETE FROM Notes n WHERE n.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+    long countByUser_Id(Long userId);
+
+    // Keyset page over (user_id, id) for list views, without reading the content column
+    @Query("""
+            SELECT new com.note.demo.dto.NoteSummary(n.id, n.title, n.created_at, n.preview)
+            FROM Notes n WHERE n.user.id = :userId AND n.id > :afterId ORDER BY n.id
+            """)
+    List<NoteSummary> findSummariesByUserId(@Param("userId") Long userId,
+                                            @Param("afterId") Long afterId,
+                                            Limit limit);
+
+    // Delta sync: the user's notes written after a change sequence number, served by notes_user_change_idx
+    @Query("SELECT n FROM Notes n WHERE n.user.id = :userId AND n.change_seq > :afterSeq ORDER BY n.change_seq")
+    List<Notes> findChangedSince(@Param("userId") Long userId, @Param("afterSeq") Long afterSeq, Limit limit);
+
+    // Forward-only cursor for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        // A full export would otherwise flush every hot note out of the second-level cache
+        @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT n FROM Notes n WHERE n.user.id = :userId ORDER BY n.id")
+    Stream<Notes> streamByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT n.created_at AS day, COUNT(n) AS total FROM Notes n WHERE n.created_at >= :since GROUP BY n.created_at")
+    List<DayCount> countPerDaySince(@Param("since") LocalDate since);
+
+    // Per-day split of one user's notes, for the dashboard counters before an account is deleted
+    @Query("SELECT n.created_at AS day, COUNT(n) AS total FROM Notes n WHERE n.user.id = :userId GROUP BY n.created_at")
+    List<DayCount> countPerDayByUserId(@Param("userId") Long userId);
+
+    interface DayCount {
+        LocalDate getDay();
+        long getTotal();
+    }
+
+    // Count and change sequence from one statement, so both describe the same snapshot
+    @Query(value = """
+            SELECT u.note_change_seq AS seq, (SELECT COUNT(*) FROM notes n WHERE n.user_id = u.id) AS total
+            FROM users u WHERE u.id = :userId
+            """, nativeQuery = true)
+    Optional<CountSnapshot> countSnapshot(@Param("userId") Long userId);
+
+    interface CountSnapshot {
+        long getSeq();
+        long getTotal();
+    }
+
+    // Full-text search served by the notes_search_idx GIN index (see db/migration).
+    // Rows are [id, title, created_at, preview]: content is read for matching and ranking only
+    @Query(value = """
+            SELECT n.id, n.title, n.created_at, n.preview FROM notes n
+            WHERE n.user_id = :userId
+              AND to_tsvector('simple', coalesce(n.title, '') || ' ' || coalesce(n.content, ''))
+                  @@ to_tsquery('simple', :tsQuery)
+            ORDER BY ts_rank(
+                       to_tsvector('simple', coalesce(n.title, '') || ' ' || coalesce(n.content, '')),
+                       to_tsquery('simple', :tsQuery)) DESC,
+                     n.id DESC
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Object[]> searchSummariesByUserId(@Param("userId") Long userId,
+                                          @Param("tsQuery") String tsQuery,
+                                          @Param("limit") int limit,
+                                          @Param("offset") long offset);
+}
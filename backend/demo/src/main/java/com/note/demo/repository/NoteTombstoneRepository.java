@@ -0,0 +1,28 @@
+package com.note.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.note.demo.model.NoteTombstone;
+
+public interface NoteTombstoneRepository extends JpaRepository<NoteTombstone, Long> {
+
+    List<NoteTombstone> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(Long userId, Long afterSeq, Limit limit);
+
+    // One statement for all of a user's tombstones; must run in the caller's transaction
+    @Modifying
+    @Query("DELETE FROM NoteTombstone t WHERE t.userId = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NoteTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,16 +1,65 @@
 package com.note.demo.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.note.demo.model.Role;
 import com.note.demo.model.Users;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 @Repository
-public interface UserRepository extends JpaRepository<Users, Long> {
+public interface UserRepository extends JpaRepository<Users, Long>, UserRepositoryCustom {
+    // Query cache: repeated lookups of the same login resolve to an id and then to the entity cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Users> findByUsername(String username);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Users> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     long countByRole(Role role);
+
+    // One grouped scan instead of a count per role
+    @Query("SELECT u.role AS role, COUNT(u) AS total FROM Users u GROUP BY u.role")
+    List<RoleCount> countGroupedByRole();
+
+    // Used once at startup to warm the identifier Bloom filter; must run inside a transaction
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.username AS username, u.email AS email FROM Users u")
+    Stream<UserIdentifiers> streamAllIdentifiers();
+
+    // Everything /auth/me's ETag depends on, without loading the entity
+    @Query("SELECT u.version AS version, u.lastLogin AS lastLogin FROM Users u WHERE u.username = :username")
+    Optional<VersionStamp> findVersionStamp(@Param("username") String username);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Users u SET u.password = :password, u.version = u.version + 1 WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    interface UserIdentifiers {
+        String getUsername();
+        String getEmail();
+    }
+
+    interface VersionStamp {
+        Long getVersion();
+        LocalDateTime getLastLogin();
+    }
+
+    interface RoleCount {
+        Role getRole();
+        long getTotal();
+    }
 }
@@ -0,0 +1,13 @@
+package com.note.demo.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.note.demo.dto.UserResponse;
+import com.note.demo.dto.UserSearchCriteria;
+
+public interface UserRepositoryCustom {
+
+    // Selects only the UserResponse columns; never loads Users entities or their notes
+    Page<UserResponse> searchUserSummaries(UserSearchCriteria criteria, Pageable pageable);
+}
@@ -0,0 +1,103 @@
+package com.note.demo.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.note.demo.dto.UserResponse;
+import com.note.demo.dto.UserSearchCriteria;
+import com.note.demo.model.Users;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final Set<String> SORTABLE = Set.of("id", "username", "email", "role", "createdAt", "lastLogin");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UserResponse> searchUserSummaries(UserSearchCriteria criteria, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<UserResponse> query = cb.createQuery(UserResponse.class);
+        Root<Users> user = query.from(Users.class);
+        query.select(cb.construct(UserResponse.class,
+                user.get("id"), user.get("username"), user.get("email"),
+                user.get("firstName"), user.get("lastName"), user.get("profileLink"),
+                user.get("role"), user.get("createdAt"), user.get("lastLogin")))
+            .where(predicates(cb, user, criteria))
+            .orderBy(QueryUtils.toOrders(sanitize(pageable.getSort()), user, cb));
+
+        List<UserResponse> content = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Users> counted = countQuery.from(Users.class);
+        countQuery.select(cb.count(counted)).where(predicates(cb, counted, criteria));
+        long total = entityManager.createQuery(countQuery).getSingleResult();
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<Users> user, UserSearchCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getRole() != null) {
+            predicates.add(cb.equal(user.get("role"), criteria.getRole()));
+        }
+        if (criteria.getQuery() != null && !criteria.getQuery().isBlank()) {
+            // Prefix match served by the lower(username|email) text_pattern_ops indexes
+            String prefix = escapeLike(criteria.getQuery().trim().toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.or(
+                cb.like(cb.lower(user.<String>get("username")), prefix, '\\'),
+                cb.like(cb.lower(user.<String>get("email")), prefix, '\\')));
+        }
+        if (criteria.getCreatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(user.<LocalDateTime>get("createdAt"), criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            predicates.add(cb.lessThan(user.<LocalDateTime>get("createdAt"), criteria.getCreatedTo()));
+        }
+        if (criteria.getLastLoginFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(user.<LocalDateTime>get("lastLogin"), criteria.getLastLoginFrom()));
+        }
+        if (criteria.getLastLoginTo() != null) {
+            predicates.add(cb.lessThan(user.<LocalDateTime>get("lastLogin"), criteria.getLastLoginTo()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    // Ignores unknown sort properties instead of failing; always ends with id for a stable order
+    private static Sort sanitize(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (SORTABLE.contains(order.getProperty())) {
+                orders.add(order);
+            }
+        }
+        if (orders.stream().noneMatch(order -> order.getProperty().equals("id"))) {
+            orders.add(Sort.Order.asc("id"));
+        }
+        return Sort.by(orders);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
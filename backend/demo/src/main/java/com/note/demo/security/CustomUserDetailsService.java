@@ -1,33 +1,122 @@
 package com.note.demo.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.note.demo.model.Users;
 import com.note.demo.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.security.principal-cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    // Keyed by the login string (username or email). Values are immutable snapshots:
+    // Spring Security erases the password of the UserDetails it hands out, so a fresh
+    // User is built from the snapshot on every call.
+    private Cache<String, CachedPrincipal> principalCache;
+
+    @PostConstruct
+    public void init() {
+        principalCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .maximumSize(cacheMaxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principalCache, "security.principal");
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        CachedPrincipal principal = principalCache.get(username, this::loadPrincipal);
+        return new User(principal.username(), principal.password(), principal.authorities());
+    }
+
+    private CachedPrincipal loadPrincipal(String username) {
         Users user = userRepository.findByUsername(username)
                 .orElseGet(() -> userRepository.findByEmail(username)
                         .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username)));
 
-        return new User(
+        return new CachedPrincipal(
+            user.getId(),
             user.getUsername(),
             user.getPassword(),
             Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
         );
     }
+
+    /**
+     * Resolves a login to the user's id from the principal cache, which the authentication
+     * filter has usually just filled for the same request.
+     */
+    public Long loadUserId(String username) throws UsernameNotFoundException {
+        return principalCache.get(username, this::loadPrincipal).id();
+    }
+
+    /**
+     * Called by Spring Security after a successful login when the stored hash was made with
+     * a different BCrypt cost than the configured one; stores the re-encoded password.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        // The login may have been the email, which caches the principal under that key too
+        String email = userRepository.findByUsername(user.getUsername()).map(Users::getEmail).orElse(null);
+        evict(user.getUsername(), email);
+        return new User(user.getUsername(), newPassword, user.getAuthorities());
+    }
+
+    /**
+     * Drops every cached principal reachable through the given logins (usernames or emails).
+     * Called whenever a user's credentials, role or identifiers change, or the user is deleted.
+     */
+    public void evict(String... logins) {
+        for (String login : logins) {
+            if (login != null) {
+                principalCache.invalidate(login);
+            }
+        }
+    }
+
+    public Map<String, Object> getCacheStats() {
+        CacheStats stats = principalCache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("size", principalCache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private record CachedPrincipal(Long id, String username, String password, List<GrantedAuthority> authorities) {}
 }
@@ -1,30 +1,101 @@
 package com.note.demo.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.note.demo.model.Users;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
-    
+
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    public static final String CLAIM_USER_ID = "uid";
+
+    public static final String CLAIM_ROLE = "role";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration-ms}")
     private long jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private long verifiedCacheSize;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    // Claims of tokens whose signature was already checked, keyed by the token's SHA-256
+    // so the raw bearer tokens are never kept in memory. Entries expire with the token.
+    // Null when app.jwt.verified-cache-size is 0.
+    private Cache<String, Claims> verifiedTokens;
+
+    // jwt.verify timers, one per outcome, built once so recording allocates nothing
+    private Timer verifyValid;
+    private Timer verifyCached;
+    private Timer verifyEmpty;
+    private Timer verifyMalformed;
+    private Timer verifyExpired;
+    private Timer verifyUnsupported;
+    private Timer verifyInvalidSignature;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        if (verifiedCacheSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheSize)
+                    .expireAfter(new TokenExpiry())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+        }
+        verifyValid = verifyTimer("valid");
+        verifyCached = verifyTimer("cached");
+        verifyEmpty = verifyTimer("empty");
+        verifyMalformed = verifyTimer("malformed");
+        verifyExpired = verifyTimer("expired");
+        verifyUnsupported = verifyTimer("unsupported");
+        verifyInvalidSignature = verifyTimer("invalid_signature");
+    }
+
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("jwt.verify")
+                .description("Bearer token verification, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
     public String generateJwtToken(Authentication authentication) {
@@ -37,37 +108,134 @@ public class JwtUtils {
                 .subject(username)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public String getUsernameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    /**
+     * Issues a token that also carries the user's id and role, so the authentication
+     * filter can build the principal from the claims alone when that mode is enabled.
+     */
+    public String generateTokenForUser(Users user) {
+        return Jwts.builder()
+                .subject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
+                .signWith(signingKey, Jwts.SIG.HS256)
+                .compact();
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the token once and returns its claims, or {@code null} when the token is
+     * invalid or expired. Recently verified tokens are answered from memory without
+     * recomputing the HMAC. Rejections are counted by reason under jwt.verify and only
+     * logged at debug level, since any client can produce them.
+     */
+    public Claims verifyAndGetClaims(String token) {
+        long start = System.nanoTime();
+        if (token == null || token.isEmpty()) {
+            logger.debug("JWT claims string is empty");
+            verifyEmpty.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+
+        String key = verifiedTokens != null ? hash(token) : null;
+        Claims cached = key != null ? verifiedTokens.getIfPresent(key) : null;
+        if (cached != null) {
+            Date expiration = cached.getExpiration();
+            if (expiration == null || expiration.getTime() > System.currentTimeMillis()) {
+                verifyCached.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return cached;
+            }
+            verifiedTokens.invalidate(key);
+        }
+
+        Timer outcome;
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            if (key != null) {
+                verifiedTokens.put(key, claims);
+            }
+            verifyValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return claims;
         } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            logger.debug("Invalid JWT token: {}", e.getMessage());
+            outcome = verifyMalformed;
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            logger.debug("JWT token is expired: {}", e.getMessage());
+            outcome = verifyExpired;
         } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
+            logger.debug("JWT token is unsupported: {}", e.getMessage());
+            outcome = verifyUnsupported;
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
-        } catch (SecurityException e) {
-            logger.error("Invalid JWT signature: {}", e.getMessage());
+            logger.debug("JWT claims string is empty: {}", e.getMessage());
+            outcome = verifyEmpty;
+        } catch (JwtException e) {
+            logger.debug("Invalid JWT signature: {}", e.getMessage());
+            outcome = verifyInvalidSignature;
+        }
+        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return null;
+    }
+
+    public String getUsernameFromJwtToken(String token) {
+        Claims claims = verifyAndGetClaims(token);
+        if (claims == null) {
+            throw new JwtException("Invalid JWT token");
+        }
+        return claims.getSubject();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return verifyAndGetClaims(authToken) != null;
+    }
+
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> result = new HashMap<>();
+        if (verifiedTokens == null) {
+            result.put("enabled", false);
+            return result;
+        }
+        CacheStats stats = verifiedTokens.stats();
+        result.put("size", verifiedTokens.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            long remainingMs = expiration != null
+                    ? expiration.getTime() - System.currentTimeMillis()
+                    : jwtExpirationMs;
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
-        return false;
     }
 }
@@ -0,0 +1,12 @@
+package com.note.demo.security;
+
+/**
+ * Thrown when the password hashing pool and its queue are full. Callers answer with
+ * 503 and Retry-After rather than queueing more CPU-bound work.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException() {
+        super("Server is busy, please retry shortly");
+    }
+}
@@ -0,0 +1,152 @@
+package com.note.demo.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.note.demo.model.Role;
+import com.note.demo.repository.NoteRepository;
+import com.note.demo.repository.UserRepository;
+
+/**
+ * In-memory dashboard counters. UserService and NoteService report every change as it
+ * happens, so reading the stats costs no query; a periodic reconciliation reloads the
+ * figures from the database to correct any drift. The counters are per process and only
+ * see this instance's writes: with several instances each one lags the others' changes
+ * until its next reconciliation (app.stats.reconcile-interval-ms), so the figures are
+ * exact only on a single instance.
+ */
+@Service
+public class DashboardStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    NoteRepository noteRepository;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    AsyncTaskExecutor taskExecutor;
+
+    @Value("${app.stats.notes-per-day-window:30}")
+    private int notesPerDayWindow;
+
+    private final Map<Role, AtomicLong> usersByRole = new EnumMap<>(Role.class);
+    private final AtomicLong totalNotes = new AtomicLong();
+    private final Map<LocalDate, AtomicLong> notesPerDay = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastReconciledAt;
+
+    public DashboardStatsService() {
+        for (Role role : Role.values()) {
+            usersByRole.put(role, new AtomicLong());
+        }
+    }
+
+    // ==================== CHANGE HOOKS ====================
+
+    public void userCreated(Role role) {
+        usersByRole.get(role).incrementAndGet();
+    }
+
+    // The user's notes are bulk-deleted with it, so they come as a per-day count
+    public void userDeleted(Role role, List<NoteRepository.DayCount> deletedNotes) {
+        usersByRole.get(role).decrementAndGet();
+        for (NoteRepository.DayCount day : deletedNotes) {
+            notesDeleted(day.getDay(), day.getTotal());
+        }
+    }
+
+    public void roleChanged(Role from, Role to) {
+        if (from != to) {
+            usersByRole.get(from).decrementAndGet();
+            usersByRole.get(to).incrementAndGet();
+        }
+    }
+
+    public void notesCreated(LocalDate day, long count) {
+        totalNotes.addAndGet(count);
+        if (day != null) {
+            notesPerDay.computeIfAbsent(day, d -> new AtomicLong()).addAndGet(count);
+        }
+    }
+
+    public void notesDeleted(LocalDate day, long count) {
+        notesCreated(day, -count);
+    }
+
+    // ==================== READ ====================
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long admins = usersByRole.get(Role.ADMIN).get();
+        long regularUsers = usersByRole.get(Role.USER).get();
+        stats.put("totalUsers", admins + regularUsers);
+        stats.put("totalAdmins", admins);
+        stats.put("totalRegularUsers", regularUsers);
+        stats.put("totalNotes", totalNotes.get());
+
+        Map<String, Long> perDay = new LinkedHashMap<>();
+        LocalDate today = LocalDate.now();
+        for (int i = notesPerDayWindow - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(i);
+            AtomicLong count = notesPerDay.get(day);
+            perDay.put(day.toString(), count != null ? count.get() : 0L);
+        }
+        stats.put("notesPerDay", perDay);
+        stats.put("lastReconciledAt", lastReconciledAt);
+        return stats;
+    }
+
+    // ==================== RECONCILIATION ====================
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        LocalDate since = LocalDate.now().minusDays(notesPerDayWindow - 1);
+
+        CompletableFuture<List<UserRepository.RoleCount>> roles =
+            CompletableFuture.supplyAsync(userRepository::countGroupedByRole, taskExecutor);
+        CompletableFuture<Long> notes =
+            CompletableFuture.supplyAsync(noteRepository::count, taskExecutor);
+        CompletableFuture<List<NoteRepository.DayCount>> days =
+            CompletableFuture.supplyAsync(() -> noteRepository.countPerDaySince(since), taskExecutor);
+
+        try {
+            CompletableFuture.allOf(roles, notes, days).join();
+        } catch (Exception e) {
+            logger.warn("Dashboard stats reconciliation failed: {}", e.getMessage());
+            return;
+        }
+
+        Map<Role, Long> roleTotals = new EnumMap<>(Role.class);
+        for (UserRepository.RoleCount row : roles.join()) {
+            roleTotals.put(row.getRole(), row.getTotal());
+        }
+        for (Role role : Role.values()) {
+            usersByRole.get(role).set(roleTotals.getOrDefault(role, 0L));
+        }
+        totalNotes.set(notes.join());
+
+        notesPerDay.clear();
+        for (NoteRepository.DayCount row : days.join()) {
+            notesPerDay.put(row.getDay(), new AtomicLong(row.getTotal()));
+        }
+        lastReconciledAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,80 @@
+package com.note.demo.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.note.demo.model.Users;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Write-behind buffer for last-login timestamps. Logins only record the time in memory;
+ * repeated logins of the same user between flushes coalesce into one entry, and a
+ * scheduled task writes them with a single batched UPDATE. Pending entries are flushed
+ * on shutdown. The UPDATE bypasses Hibernate, so the written users are evicted from the
+ * second-level cache afterwards.
+ */
+@Component
+public class LastLoginRecorder {
+    private static final Logger logger = LoggerFactory.getLogger(LastLoginRecorder.class);
+
+    private static final String UPDATE_SQL =
+        "UPDATE users SET last_login = ? WHERE id = ? AND (last_login IS NULL OR last_login < ?)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public void record(Long userId) {
+        pending.merge(userId, LocalDateTime.now(), (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.last-login.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (Long userId : pending.keySet()) {
+            LocalDateTime lastLogin = pending.remove(userId);
+            if (lastLogin != null) {
+                Timestamp timestamp = Timestamp.valueOf(lastLogin);
+                batch.add(new Object[] { timestamp, userId, timestamp });
+            }
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+            for (Object[] row : batch) {
+                entityManagerFactory.getCache().evict(Users.class, row[1]);
+            }
+        } catch (Exception e) {
+            // Put the entries back so the next flush retries them, unless a newer login arrived
+            for (Object[] row : batch) {
+                LocalDateTime lastLogin = ((Timestamp) row[0]).toLocalDateTime();
+                pending.merge((Long) row[1], lastLogin, (current, failed) -> current);
+            }
+            logger.warn("Could not flush {} last-login updates: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,47 @@
+package com.note.demo.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Hands out the per-user change sequence numbers that order note changes for delta sync.
+ * The counter lives on the user's row and is incremented in the writer's transaction, so
+ * the row lock serializes a user's writers until commit: a change with a higher number can
+ * never become visible before one with a lower number, and a sync cursor never skips one.
+ */
+@Component
+public class NoteChangeSequence {
+
+    private static final String NEXT_SQL =
+        "UPDATE users SET note_change_seq = note_change_seq + ? WHERE id = ? RETURNING note_change_seq";
+
+    private static final String CURRENT_SQL = "SELECT note_change_seq FROM users WHERE id = ?";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves {@code count} consecutive numbers for the user and returns the first one.
+     * Must run inside the transaction that writes the changes.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long reserve(Long userId, int count) {
+        long last = jdbcTemplate.queryForObject(NEXT_SQL, Long.class, count, userId);
+        return last - count + 1;
+    }
+
+    /**
+     * Last number handed out for the user, i.e. the version of their note collection as of
+     * the latest committed write; null when the user does not exist. Read from the database
+     * so every instance sees the same value.
+     */
+    public Long current(Long userId) {
+        List<Long> seq = jdbcTemplate.queryForList(CURRENT_SQL, Long.class, userId);
+        return seq.isEmpty() ? null : seq.get(0);
+    }
+}
@@ -0,0 +1,87 @@
+package com.note.demo.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.note.demo.repository.NoteRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Per-user note counters. A counter is seeded with one COUNT query and then kept current
+ * by NoteService on every create and delete, so reads never touch the notes table.
+ * Entries expire after a while to bound any drift from writes that bypass NoteService.
+ * Counters are local to the process and only see this instance's writes, so the cache is
+ * off by default and meant for single-instance deployments.
+ */
+@Component
+public class NoteCountCache {
+
+    @Autowired
+    NoteRepository noteRepository;
+
+    @Value("${app.notes.count-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.notes.count-cache.max-size:50000}")
+    private long maxSize;
+
+    @Value("${app.notes.count-cache.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    private Cache<Long, Counter> counters;
+
+    @PostConstruct
+    public void init(){
+        counters = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .build();
+    }
+
+    public long count(Long userId){
+        if (!enabled) {
+            return noteRepository.countByUser_Id(userId);
+        }
+        Counter counter = counters.get(userId, id -> noteRepository.countSnapshot(id)
+            .map(snapshot -> new Counter(snapshot.getSeq(), snapshot.getTotal()))
+            .orElse(null));
+        return counter != null ? counter.count.get() : 0;
+    }
+
+    /**
+     * Applies a committed write to the user's counter. {@code changeSeq} is any change
+     * sequence number reserved by the write's transaction: a counter seeded from a snapshot
+     * at or past it already includes the write. computeIfPresent waits for a seed that is
+     * still loading, so a write committed after its snapshot is not lost either. A missing
+     * counter is seeded from the database on the next read, which includes the change.
+     */
+    public void add(Long userId, long delta, long changeSeq){
+        counters.asMap().computeIfPresent(userId, (id, counter) -> {
+            if (changeSeq > counter.seededSeq) {
+                counter.count.addAndGet(delta);
+            }
+            return counter;
+        });
+    }
+
+    public void evict(Long userId){
+        counters.invalidate(userId);
+    }
+
+    private static final class Counter {
+        final long seededSeq;
+        final AtomicLong count;
+
+        Counter(long seededSeq, long count) {
+            this.seededSeq = seededSeq;
+            this.count = new AtomicLong(count);
+        }
+    }
+}
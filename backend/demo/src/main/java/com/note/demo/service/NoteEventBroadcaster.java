@@ -0,0 +1,240 @@
+package com.note.demo.service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.note.demo.dto.NoteEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-process fan-out of note changes to SSE subscribers. An idle subscriber is only an
+ * emitter and an empty queue: no thread is parked on it. Publishing appends to each of the
+ * user's bounded queues and, if the subscriber is not already being written to, hands one
+ * drain task to the (virtual thread) task executor. A subscriber whose queue overflows
+ * loses its buffered events and gets a single resync event instead, so a slow client can
+ * neither block publishers nor grow memory.
+ */
+@Component
+public class NoteEventBroadcaster {
+    private static final Logger logger = LoggerFactory.getLogger(NoteEventBroadcaster.class);
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT =
+        SseEmitter.event().comment("keepalive").build();
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    AsyncTaskExecutor taskExecutor;
+
+    @Value("${app.notes.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.notes.stream.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    @Value("${app.notes.stream.max-subscribers-per-user:5}")
+    private int maxSubscribersPerUser;
+
+    @Value("${app.notes.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong overflows = new AtomicLong();
+
+    /**
+     * Opens a stream for the user. Throws IllegalStateException when the global or per-user
+     * subscriber limit is reached.
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many open note streams");
+        }
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMs));
+        AtomicBoolean added = new AtomicBoolean();
+        // compute() keeps this atomic with close() removing the user's last subscriber
+        subscribers.compute(userId, (id, set) -> {
+            Set<Subscriber> current = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (current.size() < maxSubscribersPerUser) {
+                added.set(current.add(subscriber));
+            }
+            return current.isEmpty() ? null : current;
+        });
+        if (!added.get()) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many open note streams for this user");
+        }
+
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(() -> {
+            subscriber.close();
+            emitter.complete();
+        });
+        emitter.onError(error -> subscriber.close());
+        // Flushes the response headers so proxies and EventSource see the stream open
+        subscriber.offer(SseEmitter.event().comment("connected").build(), false);
+        return emitter;
+    }
+
+    public void publish(Long userId, NoteEvent event) {
+        publishAll(userId, List.of(event));
+    }
+
+    public void publishAll(Long userId, List<NoteEvent> events) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null || userSubscribers.isEmpty() || events.isEmpty()) {
+            return;
+        }
+        // More than a buffer's worth could never be delivered whole anyway
+        List<NoteEvent> toSend = events.size() > bufferSize ? List.of(NoteEvent.resync()) : events;
+        for (NoteEvent event : toSend) {
+            Set<ResponseBodyEmitter.DataWithMediaType> data = serialize(event);
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.offer(data, true);
+            }
+        }
+    }
+
+    // Ends the user's open streams, e.g. once the account is deleted
+    public void disconnect(Long userId) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : userSubscribers) {
+            subscriber.close();
+            subscriber.emitter.complete();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.notes.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.offer(HEARTBEAT, false);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("subscribers", subscriberCount.get());
+        result.put("users", subscribers.size());
+        result.put("overflows", overflows.get());
+        return result;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        for (Set<Subscriber> userSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : userSubscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> serialize(NoteEvent event) {
+        try {
+            // Serialized once and shared by every subscriber of the user
+            SseEmitter.SseEventBuilder builder = SseEmitter.event()
+                .name(event.getType())
+                .data(objectMapper.writeValueAsString(event));
+            if (event.getChangeSeq() != null) {
+                builder.id(Long.toString(event.getChangeSeq()));
+            }
+            return builder.build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize note event", e);
+        }
+    }
+
+    private final class Subscriber {
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> data, boolean resyncOnOverflow) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(data) && resyncOnOverflow) {
+                queue.clear();
+                queue.offer(serialize(NoteEvent.resync()));
+                overflows.incrementAndGet();
+            }
+            scheduleDrain();
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                taskExecutor.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> data;
+                while (!closed.get() && (data = queue.poll()) != null) {
+                    emitter.send(data);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed; the container reports
+                // the broken connection itself, so only local state is cleaned up here
+                logger.debug("Closing note stream of user {}: {}", userId, e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            // Something may have been queued between the last poll and releasing the flag
+            if (!closed.get() && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            queue.clear();
+            subscriberCount.decrementAndGet();
+            subscribers.computeIfPresent(userId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.note.demo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.note.demo.model.Notes;
+import com.note.demo.repository.NoteRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Writes a user's notes as NDJSON (one JSON object per line) straight from a database
+ * cursor, so memory use does not depend on how many notes the user has.
+ */
+@Service
+public class NoteExportService {
+    // Rows kept in the persistence context before it is cleared; matches the fetch size
+    private static final int CLEAR_INTERVAL = NoteRepository.EXPORT_FETCH_SIZE;
+
+    @Autowired
+    NoteRepository noteRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public long exportNotes(Long userId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(Notes.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long written = 0;
+
+        try (Stream<Notes> notes = noteRepository.streamByUserId(userId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(null);
+
+            Iterator<Notes> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++written % CLEAR_INTERVAL == 0) {
+                    generator.flush();
+                    entityManager.clear();
+                }
+            }
+            generator.flush();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,218 @@
+package com.note.demo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.note.demo.dto.NoteEvent;
+import com.note.demo.dto.NoteImportResult;
+import com.note.demo.model.Notes;
+import com.note.demo.model.Users;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Imports notes from an NDJSON (or JSON array) or CSV upload. The body is parsed one
+ * record at a time and written in fixed-size batches, each in its own transaction with
+ * the persistence context flushed and cleared afterwards, so memory stays bounded by the
+ * batch size. Batches that were committed stay committed if a later one fails.
+ */
+@Service
+public class NoteImportService {
+    private static final Logger logger = LoggerFactory.getLogger(NoteImportService.class);
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    NoteCountCache noteCountCache;
+
+    @Autowired
+    NoteChangeSequence noteChangeSequence;
+
+    @Autowired
+    NoteEventBroadcaster noteEventBroadcaster;
+
+    @Autowired
+    DashboardStatsService dashboardStatsService;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${app.notes.import.batch-size:500}")
+    private int batchSize;
+
+    public NoteImportResult importNdjson(Long userId, InputStream in) throws IOException {
+        BatchWriter writer = new BatchWriter(userId);
+        long record = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                record++;
+                if (token != JsonToken.START_OBJECT) {
+                    writer.reject(record, "expected a JSON object");
+                    parser.skipChildren();
+                } else {
+                    readObject(parser, record, writer);
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // The stream cannot be resynchronised after a syntax error
+            writer.result.addFailure(1, "Record " + (record + 1) + ": malformed JSON (" + e.getOriginalMessage() + ")");
+            writer.result.setAborted(true);
+        }
+        return writer.finish();
+    }
+
+    public NoteImportResult importCsv(Long userId, InputStream in) throws IOException {
+        BatchWriter writer = new BatchWriter(userId);
+        long record = 0;
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = CSV_MAPPER
+                .readerForMapOf(String.class)
+                .with(schema)
+                .readValues(in)) {
+            while (rows.hasNextValue()) {
+                record++;
+                Map<String, String> row = rows.nextValue();
+                writer.add(record, row.get("title"), row.get("content"), row.get("created_at"));
+            }
+        } catch (JsonProcessingException e) {
+            writer.result.addFailure(1, "Record " + (record + 1) + ": malformed CSV (" + e.getOriginalMessage() + ")");
+            writer.result.setAborted(true);
+        }
+        return writer.finish();
+    }
+
+    private void readObject(JsonParser parser, long record, BatchWriter writer) throws IOException {
+        String title = null;
+        String content = null;
+        String createdAt = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "title" -> title = parser.getValueAsString();
+                case "content" -> content = parser.getValueAsString();
+                case "created_at" -> createdAt = parser.getValueAsString();
+                default -> { }
+            }
+        }
+        writer.add(record, title, content, createdAt);
+    }
+
+    private class BatchWriter {
+        private final Long userId;
+        private final List<Notes> pending = new ArrayList<>(batchSize);
+        private final NoteImportResult result = new NoteImportResult();
+
+        BatchWriter(Long userId) {
+            this.userId = userId;
+        }
+
+        void add(long record, String title, String content, String createdAt) {
+            if (title == null || title.trim().isEmpty()) {
+                reject(record, "Title is required");
+                return;
+            }
+            if (content == null || content.trim().isEmpty()) {
+                reject(record, "Content is required");
+                return;
+            }
+            LocalDate created = LocalDate.now();
+            if (createdAt != null && !createdAt.isBlank()) {
+                try {
+                    created = LocalDate.parse(createdAt.trim());
+                } catch (DateTimeParseException e) {
+                    reject(record, "Invalid created_at: " + createdAt);
+                    return;
+                }
+            }
+            pending.add(new Notes(null, title.trim(), content.trim(), created));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long record, String error) {
+            result.addFailure(1, "Record " + record + ": " + error);
+        }
+
+        NoteImportResult finish() {
+            flush();
+            return result;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            int size = pending.size();
+            try {
+                Long lastChangeSeq = transactionTemplate.execute(status -> {
+                    // Imported notes are written once and rarely read right away; keep them
+                    // from evicting the hot entries of the second-level cache
+                    entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                    Users owner = entityManager.getReference(Users.class, userId);
+                    long changeSeq = noteChangeSequence.reserve(userId, size);
+                    for (Notes note : pending) {
+                        note.setUser(owner);
+                        note.markChanged(changeSeq++);
+                        entityManager.persist(note);
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                    return changeSeq - 1;
+                });
+                result.addImported(size);
+                noteCountCache.add(userId, size, lastChangeSeq);
+                // Open streams catch up through the changes endpoint rather than one event per row
+                noteEventBroadcaster.publish(userId, NoteEvent.resync());
+                for (Notes note : pending) {
+                    dashboardStatsService.notesCreated(note.getCreated_at(), 1);
+                }
+                logger.info("Note import for user {}: {} imported, {} failed", userId, result.getImported(), result.getFailed());
+            } catch (RuntimeException e) {
+                result.addFailure(size, "Batch " + (result.getBatches() + 1) + " failed: " + e.getMessage());
+                logger.warn("Note import batch failed for user {}: {}", userId, e.getMessage());
+            } finally {
+                pending.clear();
+            }
+        }
+    }
+}
@@ -1,25 +1,361 @@
 package com.note.demo.service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.note.demo.dto.CursorPage;
+import com.note.demo.dto.NoteBatchRequest;
+import com.note.demo.dto.NoteBatchResult;
+import com.note.demo.dto.NoteEvent;
+import com.note.demo.dto.NoteSummary;
+import com.note.demo.dto.PageResponse;
+import com.note.demo.model.NoteTombstone;
 import com.note.demo.model.Notes;
+import com.note.demo.model.Users;
 import com.note.demo.repository.NoteRepository;
+import com.note.demo.repository.NoteTombstoneRepository;
 
 import jakarta.annotation.PostConstruct;
 
 @Service
 public class NoteService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_OPERATIONS = 10_000;
+
     @Autowired
     NoteRepository noteRepository;
 
+    @Autowired
+    NoteCountCache noteCountCache;
+
+    @Autowired
+    DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    NoteChangeSequence noteChangeSequence;
+
+    @Autowired
+    NoteTombstoneRepository noteTombstoneRepository;
+
+    @Autowired
+    NoteEventBroadcaster noteEventBroadcaster;
+
     public List<Notes> getNotesByUserId(Long id){
        return noteRepository.findByUser_Id(id);
     }
+
+    /**
+     * Returns summaries of the user's notes with an id greater than the cursor, in id order,
+     * restricted to the requested fields. One extra row is fetched to know whether a next
+     * page exists.
+     */
+    public CursorPage<NoteSummary> getNotesPage(Long userId, String after, int limit, String fields){
+        Set<String> selected = NoteSummary.parseFields(fields);
+        Long afterId = CursorPage.decodeCursor(after);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        List<NoteSummary> rows = noteRepository.findSummariesByUserId(
+            userId, afterId != null ? afterId : 0L, Limit.of(pageSize + 1));
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = CursorPage.encodeCursor(rows.get(pageSize - 1).getId());
+        }
+        rows.forEach(row -> row.retain(selected));
+        return new CursorPage<>(rows, nextCursor);
+    }
+
+    /**
+     * Ranked full-text search over title and content. Every word of the query must match,
+     * and each word also matches longer words starting with it.
+     */
+    public PageResponse<NoteSummary> searchNotes(Long userId, String query, int page, int size, String fields){
+        Set<String> selected = NoteSummary.parseFields(fields);
+        String tsQuery = toPrefixTsQuery(query);
+        if (tsQuery.isEmpty()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE);
+
+        List<Object[]> rows = noteRepository.searchSummariesByUserId(
+            userId, tsQuery, pageSize + 1, (long) pageNumber * pageSize);
+        boolean hasMore = rows.size() > pageSize;
+        List<NoteSummary> items = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (Object[] row : hasMore ? rows.subList(0, pageSize) : rows) {
+            items.add(toSummary(row).retain(selected));
+        }
+        return new PageResponse<>(items, pageNumber, pageSize, hasMore);
+    }
+
+    // Native rows come back as [id, title, created_at, preview]; the driver may hand the
+    // date over as java.sql.Date
+    private static NoteSummary toSummary(Object[] row){
+        Object created = row[2];
+        LocalDate createdAt = created instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) created;
+        return new NoteSummary(((Number) row[0]).longValue(), (String) row[1], createdAt, (String) row[3]);
+    }
+
+    // "Meeting Notes" -> "meeting:* & notes:*". Anything that is not a letter or digit is
+    // dropped so user input can never inject tsquery operators.
+    public static String toPrefixTsQuery(String query){
+        List<String> terms = new ArrayList<>();
+        if (query != null) {
+            for (String word : query.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty()) {
+                    terms.add(word + ":*");
+                }
+            }
+        }
+        return String.join(" & ", terms);
+    }
+
+    /**
+     * ETag of the user's note listings: the user's change sequence, which every note write
+     * advances in its own transaction. Must be taken before the listing is loaded, so a
+     * concurrent write can only make the tag older than the body, never newer. Null when
+     * the user does not exist.
+     */
+    public String collectionEtag(Long userId){
+        Long changeSeq = noteChangeSequence.current(userId);
+        return changeSeq != null ? "\"n-" + userId + "-" + changeSeq + "\"" : null;
+    }
+
+    // Null when the note does not exist or belongs to someone else
+    public String noteEtag(Long noteId, Long userId){
+        return noteRepository.findVersion(noteId, userId)
+            .map(version -> formatNoteEtag(noteId, version))
+            .orElse(null);
+    }
+
+    public String noteEtag(Notes note){
+        return formatNoteEtag(note.getId(), note.getVersion());
+    }
+
+    private static String formatNoteEtag(Long noteId, Long version){
+        return "\"" + noteId + "-" + version + "\"";
+    }
+
+    public long countNotes(Long userId){
+        return noteCountCache.count(userId);
+    }
+
+    @Transactional
+    public Notes createNote(Users user, String title, String content){
+        Notes note = new Notes();
+        note.setTitle(title);
+        note.setContent(content);
+        note.setCreated_at(LocalDate.now());
+        note.setUser(user);
+        note.markChanged(noteChangeSequence.reserve(user.getId(), 1));
+
+        Notes saved = noteRepository.save(note);
+        afterCommit(() -> {
+            noteCountCache.add(user.getId(), 1, saved.getChange_seq());
+            dashboardStatsService.notesCreated(saved.getCreated_at(), 1);
+            noteEventBroadcaster.publish(user.getId(), NoteEvent.created(saved));
+        });
+        return saved;
+    }
+
+    @Transactional
+    public Notes updateNote(Notes note, String title, String content){
+        if (title != null) {
+            note.setTitle(title);
+        }
+        if (content != null) {
+            note.setContent(content);
+        }
+        Long userId = note.getUser().getId();
+        note.markChanged(noteChangeSequence.reserve(userId, 1));
+        Notes saved = noteRepository.save(note);
+        afterCommit(() -> {
+            noteEventBroadcaster.publish(userId, NoteEvent.updated(saved));
+        });
+        return saved;
+    }
+
+    // Leaves a tombstone so delta sync clients learn about the deletion
+    @Transactional
+    public void deleteNote(Notes note){
+        Long userId = note.getUser().getId();
+        long changeSeq = noteChangeSequence.reserve(userId, 1);
+        noteTombstoneRepository.save(new NoteTombstone(note.getId(), userId, changeSeq, LocalDateTime.now()));
+        noteRepository.delete(note);
+        afterCommit(() -> {
+            noteCountCache.add(userId, -1, changeSeq);
+            dashboardStatsService.notesDeleted(note.getCreated_at(), 1);
+            noteEventBroadcaster.publish(userId, NoteEvent.deleted(note.getId(), changeSeq));
+        });
+    }
+
+    /**
+     * Applies creates, updates and deletes in one transaction. Invalid items are reported
+     * per item and skipped; inserts and updates go out as JDBC batches, existing notes are
+     * loaded with one query and deletes are issued as one statement.
+     */
+    @Transactional
+    public List<NoteBatchResult> applyBatch(Users user, NoteBatchRequest request){
+        if (request.size() > MAX_BATCH_OPERATIONS) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_OPERATIONS + " operations");
+        }
+        List<NoteBatchResult> results = new ArrayList<>(request.size());
+
+        List<Notes> toCreate = new ArrayList<>();
+        List<Integer> createIndexes = new ArrayList<>();
+        for (int i = 0; i < request.getCreate().size(); i++) {
+            NoteBatchRequest.Item item = request.getCreate().get(i);
+            if (isBlank(item.getTitle())) {
+                results.add(NoteBatchResult.failed("create", i, null, "invalid", "Title is required"));
+                continue;
+            }
+            if (isBlank(item.getContent())) {
+                results.add(NoteBatchResult.failed("create", i, null, "invalid", "Content is required"));
+                continue;
+            }
+            Notes note = new Notes();
+            note.setTitle(item.getTitle().trim());
+            note.setContent(item.getContent().trim());
+            note.setCreated_at(LocalDate.now());
+            note.setUser(user);
+            toCreate.add(note);
+            createIndexes.add(i);
+        }
+        // Last change sequence number reserved by this batch, 0 when nothing changed
+        long lastChangeSeq = 0;
+        if (!toCreate.isEmpty()) {
+            long changeSeq = noteChangeSequence.reserve(user.getId(), toCreate.size());
+            for (Notes note : toCreate) {
+                note.markChanged(changeSeq++);
+            }
+            lastChangeSeq = changeSeq - 1;
+        }
+        noteRepository.saveAll(toCreate);
+        for (int i = 0; i < toCreate.size(); i++) {
+            results.add(NoteBatchResult.ok("create", createIndexes.get(i), toCreate.get(i).getId()));
+        }
+
+        List<Long> referencedIds = new ArrayList<>(request.getDelete());
+        for (NoteBatchRequest.Item item : request.getUpdate()) {
+            referencedIds.add(item.getId());
+        }
+        referencedIds.removeIf(id -> id == null);
+        Map<Long, Notes> existing = new HashMap<>();
+        for (Notes note : noteRepository.findAllById(referencedIds)) {
+            existing.put(note.getId(), note);
+        }
+
+        Set<Notes> updated = new LinkedHashSet<>();
+        for (int i = 0; i < request.getUpdate().size(); i++) {
+            NoteBatchRequest.Item item = request.getUpdate().get(i);
+            Notes note = findOwned(existing, item.getId(), user, "update", i, results);
+            if (note == null) {
+                continue;
+            }
+            if (!isBlank(item.getTitle())) {
+                note.setTitle(item.getTitle().trim());
+            }
+            if (!isBlank(item.getContent())) {
+                note.setContent(item.getContent().trim());
+            }
+            updated.add(note);
+            results.add(NoteBatchResult.ok("update", i, note.getId()));
+        }
+
+        List<Notes> toDelete = new ArrayList<>();
+        for (int i = 0; i < request.getDelete().size(); i++) {
+            Long id = request.getDelete().get(i);
+            Notes note = findOwned(existing, id, user, "delete", i, results);
+            if (note == null) {
+                continue;
+            }
+            toDelete.add(note);
+            existing.remove(id);
+            results.add(NoteBatchResult.ok("delete", i, id));
+        }
+        // Updated-then-deleted notes only need their tombstone
+        updated.removeAll(toDelete);
+        List<NoteTombstone> tombstones = new ArrayList<>(toDelete.size());
+        if (!updated.isEmpty() || !toDelete.isEmpty()) {
+            long changeSeq = noteChangeSequence.reserve(user.getId(), updated.size() + toDelete.size());
+            for (Notes note : updated) {
+                note.markChanged(changeSeq++);
+            }
+            LocalDateTime deletedAt = LocalDateTime.now();
+            for (Notes note : toDelete) {
+                tombstones.add(new NoteTombstone(note.getId(), user.getId(), changeSeq++, deletedAt));
+            }
+            noteTombstoneRepository.saveAll(tombstones);
+            lastChangeSeq = changeSeq - 1;
+        }
+        noteRepository.deleteAllInBatch(toDelete);
+
+        long delta = toCreate.size() - toDelete.size();
+        long countChangeSeq = lastChangeSeq;
+        afterCommit(() -> {
+            if (delta != 0) {
+                noteCountCache.add(user.getId(), delta, countChangeSeq);
+            }
+            dashboardStatsService.notesCreated(LocalDate.now(), toCreate.size());
+            for (Notes note : toDelete) {
+                dashboardStatsService.notesDeleted(note.getCreated_at(), 1);
+            }
+            List<NoteEvent> events = new ArrayList<>(toCreate.size() + updated.size() + tombstones.size());
+            toCreate.forEach(note -> events.add(NoteEvent.created(note)));
+            updated.forEach(note -> events.add(NoteEvent.updated(note)));
+            tombstones.forEach(tombstone -> events.add(NoteEvent.deleted(tombstone.getId(), tombstone.getChangeSeq())));
+            noteEventBroadcaster.publishAll(user.getId(), events);
+        });
+        return results;
+    }
+
+    // Runs once the surrounding transaction has committed, so readers never see a new
+    // version stamp or count before the data it describes
+    private static void afterCommit(Runnable action){
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Notes findOwned(Map<Long, Notes> existing, Long id, Users user, String op, int index,
+                            List<NoteBatchResult> results){
+        Notes note = id != null ? existing.get(id) : null;
+        if (note == null) {
+            results.add(NoteBatchResult.failed(op, index, id, "not_found", "Note not found"));
+            return null;
+        }
+        if (!note.getUser().getId().equals(user.getId())) {
+            results.add(NoteBatchResult.failed(op, index, id, "forbidden", "Access denied: This note doesn't belong to you"));
+            return null;
+        }
+        return note;
+    }
+
+    private static boolean isBlank(String value){
+        return value == null || value.trim().isEmpty();
+    }
+
     public Optional<Notes> getNotesById(long id){
        return noteRepository.findById(id);
     }
@@ -28,6 +364,7 @@ public class NoteService {
     //  System.out.println("hello "+ getNotesById(1).get().getTitle());
     // }
 
+    @Transactional
     public Notes updateNoteById(long id, String title , String content, LocalDate created_at){
         Optional<Notes> noteOptional = noteRepository.findById(id);
         if(noteOptional.isPresent()){
@@ -42,12 +379,18 @@ public class NoteService {
             note.setCreated_at(created_at);
         }
 
-        return noteRepository.save(note);
+        note.markChanged(noteChangeSequence.reserve(note.getUser().getId(), 1));
+        Notes saved = noteRepository.save(note);
+        afterCommit(() -> {
+            noteEventBroadcaster.publish(note.getUser().getId(), NoteEvent.updated(saved));
+        });
+        return saved;
     }
     return null;
     }
 
+    @Transactional
     public void deleteNoteById(long id){
-        noteRepository.deleteById(id);
+        noteRepository.findById(id).ifPresent(this::deleteNote);
     }
 }
@@ -0,0 +1,91 @@
+package com.note.demo.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.note.demo.dto.NoteChanges;
+import com.note.demo.model.NoteTombstone;
+import com.note.demo.model.Notes;
+import com.note.demo.repository.NoteRepository;
+import com.note.demo.repository.NoteTombstoneRepository;
+
+/**
+ * Delta sync over the per-user change sequence. Changed notes and tombstones are read
+ * from one snapshot and merged in sequence order, so a page is always a gap-free prefix
+ * of the user's changes after the cursor.
+ */
+@Service
+public class NoteSyncService {
+    private static final Logger logger = LoggerFactory.getLogger(NoteSyncService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    NoteRepository noteRepository;
+
+    @Autowired
+    NoteTombstoneRepository noteTombstoneRepository;
+
+    @Value("${app.notes.sync.tombstone-retention-days:30}")
+    private long retentionDays;
+
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public NoteChanges getChanges(Long userId, String since, int limit){
+        long[] cursor = NoteChanges.decodeCursor(since);
+        long now = System.currentTimeMillis();
+        if (cursor != null && now - cursor[1] > Duration.ofDays(retentionDays).toMillis()) {
+            return NoteChanges.resetRequired();
+        }
+        long afterSeq = cursor != null ? cursor[0] : 0L;
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        List<Notes> notes = noteRepository.findChangedSince(userId, afterSeq, Limit.of(pageSize + 1));
+        List<NoteTombstone> tombstones = noteTombstoneRepository
+            .findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(userId, afterSeq, Limit.of(pageSize + 1));
+
+        NoteChanges changes = new NoteChanges();
+        long lastSeq = afterSeq;
+        int n = 0;
+        int t = 0;
+        for (int taken = 0; taken < pageSize && (n < notes.size() || t < tombstones.size()); taken++) {
+            boolean takeNote = t >= tombstones.size()
+                || (n < notes.size() && notes.get(n).getChange_seq() < tombstones.get(t).getChangeSeq());
+            if (takeNote) {
+                Notes note = notes.get(n++);
+                changes.getUpserts().add(note);
+                lastSeq = note.getChange_seq();
+            } else {
+                NoteTombstone tombstone = tombstones.get(t++);
+                changes.getDeleted().add(tombstone.getId());
+                lastSeq = tombstone.getChangeSeq();
+            }
+        }
+        boolean hasMore = n < notes.size() || t < tombstones.size();
+        changes.setHasMore(hasMore);
+        // Until the client has caught up, keep the time it started from: the tombstones it
+        // still needs are only guaranteed to be younger than that
+        long syncedAt = hasMore && cursor != null ? cursor[1] : now;
+        changes.setNextCursor(NoteChanges.encodeCursor(lastSeq, syncedAt));
+        return changes;
+    }
+
+    @Scheduled(cron = "${app.notes.sync.tombstone-purge-cron:0 30 3 * * *}")
+    public void purgeTombstones(){
+        int purged = noteTombstoneRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays));
+        if (purged > 0) {
+            logger.info("Purged {} note tombstones older than {} days", purged, retentionDays);
+        }
+    }
+}
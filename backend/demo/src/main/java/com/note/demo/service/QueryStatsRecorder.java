@@ -0,0 +1,179 @@
+package com.note.demo.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.lifecycle.JdbcLifecycleEventListenerAdapter;
+
+/**
+ * Counts the JDBC statements, JDBC time and rows fetched by each HTTP request, fed by the
+ * DataSource proxy that QueryStatsConfig installs when app.diagnostics.query-stats.enabled
+ * is set. Two N+1 signals are tracked: a single statement repeated within one request,
+ * and an endpoint whose statement count rises with the number of rows it returns.
+ * Statements run on other threads (streamed exports, scheduled jobs) are not attributed.
+ */
+@Component
+public class QueryStatsRecorder extends JdbcLifecycleEventListenerAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(QueryStatsRecorder.class);
+
+    private static final ThreadLocal<RequestStats> CURRENT = new ThreadLocal<>();
+
+    @Value("${app.diagnostics.query-stats.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.diagnostics.query-stats.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    public RequestStats begin() {
+        RequestStats stats = new RequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public void end(String endpoint, RequestStats stats) {
+        CURRENT.remove();
+        EndpointStats endpointStats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        boolean grows = endpointStats.record(stats.statements, stats.rows);
+
+        logger.info("{}: {} statements, {} ms JDBC, {} rows", endpoint, stats.statements, stats.jdbcMillis, stats.rows);
+        Map.Entry<String, Integer> repeated = stats.mostRepeated();
+        if (repeated != null && repeated.getValue() >= repeatThreshold) {
+            endpointStats.recordRepeated();
+            logger.warn("Possible N+1 in {}: statement ran {} times in one request: {}",
+                endpoint, repeated.getValue(), repeated.getKey());
+        }
+        if (grows) {
+            logger.warn("Possible N+1 in {}: statement count grows with result size ({})", endpoint, endpointStats);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestStats stats = CURRENT.get();
+        if (stats == null) {
+            return;
+        }
+        stats.statements++;
+        stats.jdbcMillis += execInfo.getElapsedTime();
+        for (QueryInfo query : queryInfoList) {
+            stats.executions.merge(query.getQuery(), 1, Integer::sum);
+        }
+    }
+
+    @Override
+    public void afterNext(MethodExecutionContext executionContext) {
+        RequestStats stats = CURRENT.get();
+        if (stats != null && Boolean.TRUE.equals(executionContext.getResult())) {
+            stats.rows++;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", enabled);
+        Map<String, Object> byEndpoint = new HashMap<>();
+        endpoints.forEach((endpoint, stats) -> byEndpoint.put(endpoint, stats.toMap()));
+        result.put("endpoints", byEndpoint);
+        return result;
+    }
+
+    /**
+     * Statement figures of the request running on the current thread. Also stored as the
+     * {@link #REQUEST_ATTRIBUTE} request attribute, where it holds the final totals once the
+     * request has completed.
+     */
+    public static final class RequestStats {
+        public static final String REQUEST_ATTRIBUTE = RequestStats.class.getName();
+
+        private int statements;
+        private long jdbcMillis;
+        private long rows;
+        private final Map<String, Integer> executions = new HashMap<>();
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getJdbcMillis() {
+            return jdbcMillis;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        private Map.Entry<String, Integer> mostRepeated() {
+            Map.Entry<String, Integer> max = null;
+            for (Map.Entry<String, Integer> entry : executions.entrySet()) {
+                if (max == null || entry.getValue() > max.getValue()) {
+                    max = entry;
+                }
+            }
+            return max;
+        }
+    }
+
+    private static final class EndpointStats {
+        long requests;
+        long totalStatements;
+        int maxStatements;
+        long repeatedStatements;
+        // Statement counts seen at the smallest and largest result so far
+        long minRows = Long.MAX_VALUE;
+        int statementsAtMinRows;
+        long maxRows = -1;
+        int statementsAtMaxRows;
+        boolean growsWithRows;
+
+        // Returns true when this request first shows the statement count growing with rows
+        synchronized boolean record(int statements, long rows) {
+            requests++;
+            totalStatements += statements;
+            maxStatements = Math.max(maxStatements, statements);
+            if (rows < minRows) {
+                minRows = rows;
+                statementsAtMinRows = statements;
+            }
+            if (rows > maxRows) {
+                maxRows = rows;
+                statementsAtMaxRows = statements;
+            }
+            boolean grows = maxRows > minRows && statementsAtMaxRows > statementsAtMinRows;
+            boolean firstSeen = grows && !growsWithRows;
+            growsWithRows = grows;
+            return firstSeen;
+        }
+
+        synchronized void recordRepeated() {
+            repeatedStatements++;
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("requests", requests);
+            map.put("avgStatements", requests == 0 ? 0.0 : (double) totalStatements / requests);
+            map.put("maxStatements", maxStatements);
+            map.put("repeatedStatementRequests", repeatedStatements);
+            map.put("growsWithResultSize", growsWithRows);
+            return map;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return statementsAtMinRows + " statements for " + minRows + " rows, "
+                + statementsAtMaxRows + " for " + maxRows;
+        }
+    }
+}
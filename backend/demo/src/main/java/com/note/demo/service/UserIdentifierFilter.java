@@ -0,0 +1,127 @@
+package com.note.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.note.demo.repository.UserRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Bloom filter over every username and email ever stored. A negative answer means the
+ * value is certainly free, so availability checks skip the database; a positive answer
+ * still needs a query. Deleted users are never removed, which only costs that query.
+ * Until the filter has been warmed at startup every value is reported as possibly taken.
+ */
+@Component
+public class UserIdentifierFilter {
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentifierFilter.class);
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Value("${app.users.identifier-filter.expected-entries:1000000}")
+    private long expectedEntries;
+
+    @Value("${app.users.identifier-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private AtomicLongArray bits;
+    private long bitCount;
+    private int hashCount;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        double ln2 = Math.log(2);
+        bitCount = Math.max(64, (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * ln2));
+        bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warm() {
+        long loaded = 0;
+        try (Stream<UserRepository.UserIdentifiers> rows = userRepository.streamAllIdentifiers()) {
+            for (UserRepository.UserIdentifiers row : (Iterable<UserRepository.UserIdentifiers>) rows::iterator) {
+                add(row.getUsername(), row.getEmail());
+                loaded++;
+            }
+            ready = true;
+            logger.info("User identifier filter warmed with {} users", loaded);
+        } catch (Exception e) {
+            logger.warn("Could not warm user identifier filter, availability checks will query: {}", e.getMessage());
+        }
+    }
+
+    public void add(String... values) {
+        for (String value : values) {
+            if (value == null) {
+                continue;
+            }
+            long[] hashes = hashes(value);
+            for (int i = 0; i < hashCount; i++) {
+                setBit(index(hashes, i));
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        if (!ready || value == null) {
+            return true;
+        }
+        long[] hashes = hashes(value);
+        for (int i = 0; i < hashCount; i++) {
+            long index = index(hashes, i);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    // Kirsch-Mitzenmacher: the i-th hash is h1 + i * h2
+    private long index(long[] hashes, int i) {
+        return Math.floorMod(hashes[0] + i * hashes[1], bitCount);
+    }
+
+    private static long[] hashes(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        long h1 = mix(hash);
+        long h2 = mix(h1 ^ 0x9e3779b97f4a7c15L) | 1L;
+        return new long[] { h1, h2 };
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
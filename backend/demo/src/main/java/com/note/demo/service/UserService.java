@@ -1,17 +1,29 @@
 package com.note.demo.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import com.note.demo.dto.AdminCreateUserRequest;
 import com.note.demo.dto.AdminUpdateUserRequest;
 import com.note.demo.dto.RegisterRequest;
 import com.note.demo.dto.UpdateProfileRequest;
+import com.note.demo.dto.UserResponse;
+import com.note.demo.dto.UserSearchCriteria;
 import com.note.demo.model.Role;
 import com.note.demo.model.Users;
+import com.note.demo.repository.NoteRepository;
+import com.note.demo.repository.NoteTombstoneRepository;
 import com.note.demo.repository.UserRepository;
+import com.note.demo.security.CustomUserDetailsService;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 public class UserService {
@@ -19,16 +31,38 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private NoteTombstoneRepository noteTombstoneRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+    
+    @Autowired
+    private NoteCountCache noteCountCache;
+    
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+    
+    @Autowired
+    private LastLoginRecorder lastLoginRecorder;
+    
+    @Autowired
+    private UserIdentifierFilter identifierFilter;
+    
+    @Autowired
+    private NoteEventBroadcaster noteEventBroadcaster;
+    
     public Users register(RegisterRequest request) {
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            throw new RuntimeException("Username already exists");
-        }
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new RuntimeException("Email already exists");
-        }
+        checkAvailable(request.getUsername(), request.getEmail());
         
         Users user = new Users(
             request.getUsername(),
@@ -39,7 +73,9 @@ public class UserService {
         user.setLastName(request.getLastName());
         user.setCreatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        Users saved = saveUnique(user);
+        dashboardStatsService.userCreated(saved.getRole());
+        return saved;
     }
 
 
@@ -49,20 +85,16 @@ public class UserService {
 public Users updateProfileById(Long userId, UpdateProfileRequest request) {
     Users user = userRepository.findById(userId)
         .orElseThrow(() -> new RuntimeException("User not found"));
+    String previousUsername = user.getUsername();
+    String previousEmail = user.getEmail();
     
-    // Check if username is being changed and if it's already taken
+    // A taken username is reported by the unique constraint on save
     if (request.getUsername() != null && !request.getUsername().equals(user.getUsername())) {
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            throw new RuntimeException("Username already exists");
-        }
         user.setUsername(request.getUsername());
     }
     
-    // Check if email is being changed and if it's already taken
+    // A taken email is reported by the unique constraint on save
     if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new RuntimeException("Email already exists");
-        }
         user.setEmail(request.getEmail());
     }
     
@@ -91,7 +123,9 @@ public Users updateProfileById(Long userId, UpdateProfileRequest request) {
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
     }
     
-    return userRepository.save(user);
+    Users saved = saveUnique(user);
+    userDetailsService.evict(previousUsername, previousEmail);
+    return saved;
 }
 
 // ...existing code... 
@@ -99,6 +133,82 @@ public Users updateProfileById(Long userId, UpdateProfileRequest request) {
 
 
     
+    private boolean isUsernameAvailable(String username) {
+        return !identifierFilter.mightContain(username) || !userRepository.existsByUsername(username);
+    }
+    
+    private boolean isEmailAvailable(String email) {
+        return !identifierFilter.mightContain(email) || !userRepository.existsByEmail(email);
+    }
+    
+    // Early rejection before spending a BCrypt hash on a taken name; the Bloom filter answers
+    // the common "free" case without a query and the unique constraints stay the real guard
+    private void checkAvailable(String username, String email) {
+        if (!isUsernameAvailable(username)) {
+            throw new RuntimeException("Username already exists");
+        }
+        if (!isEmailAvailable(email)) {
+            throw new RuntimeException("Email already exists");
+        }
+    }
+    
+    private Users saveUnique(Users user) {
+        try {
+            Users saved = userRepository.saveAndFlush(user);
+            identifierFilter.add(saved.getUsername(), saved.getEmail());
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            throw translateUniqueViolation(e);
+        }
+    }
+    
+    // Matched on the constraint name only: the driver message also quotes the
+    // conflicting value, which may itself contain "username" or "email". Never returns the
+    // original exception, whose message names the table, constraint and value.
+    private RuntimeException translateUniqueViolation(DataIntegrityViolationException e) {
+        ConstraintViolationException violation = e.getCause() instanceof ConstraintViolationException cause
+            ? cause : null;
+        String constraint = violation != null && violation.getConstraintName() != null
+            ? violation.getConstraintName().toLowerCase(Locale.ROOT) : "";
+        switch (constraint) {
+            case "users_username_key":
+                return new RuntimeException("Username already exists");
+            case "users_email_key":
+                return new RuntimeException("Email already exists");
+            default:
+                if (violation != null && violation.getKind() != ConstraintViolationException.ConstraintKind.UNIQUE) {
+                    return new RuntimeException("Invalid user data");
+                }
+                // A unique constraint under another name, e.g. one left by an older schema
+                return new RuntimeException("Username or email already exists");
+        }
+    }
+    
+    // Id of a login without loading the entity; null when the user does not exist
+    public Long findIdByUsername(String username) {
+        try {
+            return userDetailsService.loadUserId(username);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+    
+    // Strong ETag of the user's profile; null when the user does not exist
+    public String profileEtag(String username) {
+        return userRepository.findVersionStamp(username)
+            .map(stamp -> profileEtag(stamp.getVersion(), stamp.getLastLogin()))
+            .orElse(null);
+    }
+    
+    // Same tag for a loaded user, which may be a cached copy older than the database
+    public String profileEtag(Users user) {
+        return profileEtag(user.getVersion(), user.getLastLogin());
+    }
+    
+    private static String profileEtag(Long version, LocalDateTime lastLogin) {
+        return "\"u-" + version + "-" + lastLogin + "\"";
+    }
+    
     public Users findByUsername(String username) {
         return userRepository.findByUsername(username).orElse(null);
     }
@@ -114,20 +224,16 @@ public Users updateProfileById(Long userId, UpdateProfileRequest request) {
     public Users updateProfile(String username, UpdateProfileRequest request) {
         Users user = userRepository.findByUsername(username)
             .orElseThrow(() -> new RuntimeException("User not found"));
+        String previousUsername = user.getUsername();
+        String previousEmail = user.getEmail();
         
-        // Check if username is being changed and if it's already taken
+        // A taken username is reported by the unique constraint on save
         if (request.getUsername() != null && !request.getUsername().equals(user.getUsername())) {
-            if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-                throw new RuntimeException("Username already exists");
-            }
             user.setUsername(request.getUsername());
         }
         
-        // Check if email is being changed and if it's already taken
+        // A taken email is reported by the unique constraint on save
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
-            if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-                throw new RuntimeException("Email already exists");
-            }
             user.setEmail(request.getEmail());
         }
         
@@ -157,36 +263,32 @@ public Users updateProfileById(Long userId, UpdateProfileRequest request) {
             user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         }
         
-        return userRepository.save(user);
+        Users saved = saveUnique(user);
+        userDetailsService.evict(previousUsername, previousEmail);
+        return saved;
     }
     
     public void deleteUser(String username) {
         Users user = userRepository.findByUsername(username)
             .orElseThrow(() -> new RuntimeException("User not found"));
-        userRepository.delete(user);
+        List<NoteRepository.DayCount> deletedNotes = deleteWithNotes(user);
+        userDetailsService.evict(user.getUsername(), user.getEmail());
+        noteCountCache.evict(user.getId());
+        dashboardStatsService.userDeleted(user.getRole(), deletedNotes);
     }
     
-    public void updateLastLogin(String username) {
-        Users user = userRepository.findByUsername(username).orElse(null);
-        if (user != null) {
-            user.setLastLogin(LocalDateTime.now());
-            userRepository.save(user);
-        }
+    public void recordLogin(Users user) {
+        lastLoginRecorder.record(user.getId());
     }
     
     // ==================== ADMIN METHODS ====================
     
-    public List<Users> getAllUsers() {
-        return userRepository.findAll();
+    public Page<UserResponse> searchUsers(UserSearchCriteria criteria, Pageable pageable) {
+        return userRepository.searchUserSummaries(criteria, pageable);
     }
     
     public Users adminCreateUser(AdminCreateUserRequest request) {
-        if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-            throw new RuntimeException("Username already exists");
-        }
-        if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new RuntimeException("Email already exists");
-        }
+        checkAvailable(request.getUsername(), request.getEmail());
         
         Users user = new Users(
             request.getUsername(),
@@ -198,26 +300,25 @@ public Users updateProfileById(Long userId, UpdateProfileRequest request) {
         user.setRole(request.getRole() != null ? request.getRole() : Role.USER);
         user.setCreatedAt(LocalDateTime.now());
         
-        return userRepository.save(user);
+        Users saved = saveUnique(user);
+        dashboardStatsService.userCreated(saved.getRole());
+        return saved;
     }
     
     public Users adminUpdateUser(Long userId, AdminUpdateUserRequest request) {
         Users user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
+        String previousUsername = user.getUsername();
+        String previousEmail = user.getEmail();
+        Role previousRole = user.getRole();
         
-        // Check if username is being changed and if it's already taken
+        // A taken username is reported by the unique constraint on save
         if (request.getUsername() != null && !request.getUsername().equals(user.getUsername())) {
-            if (userRepository.findByUsername(request.getUsername()).isPresent()) {
-                throw new RuntimeException("Username already exists");
-            }
             user.setUsername(request.getUsername());
         }
         
-        // Check if email is being changed and if it's already taken
+        // A taken email is reported by the unique constraint on save
         if (request.getEmail() != null && !request.getEmail().equals(user.getEmail())) {
-            if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-                throw new RuntimeException("Email already exists");
-            }
             user.setEmail(request.getEmail());
         }
         
@@ -242,13 +343,34 @@ public Users updateProfileById(Long userId, UpdateProfileRequest request) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
         }
         
-        return userRepository.save(user);
+        Users saved = saveUnique(user);
+        userDetailsService.evict(previousUsername, previousEmail);
+        dashboardStatsService.roleChanged(previousRole, saved.getRole());
+        return saved;
     }
     
     public void adminDeleteUser(Long userId) {
         Users user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
-        userRepository.delete(user);
+        List<NoteRepository.DayCount> deletedNotes = deleteWithNotes(user);
+        userDetailsService.evict(user.getUsername(), user.getEmail());
+        noteCountCache.evict(user.getId());
+        dashboardStatsService.userDeleted(user.getRole(), deletedNotes);
+    }
+    
+    // Removes the notes and tombstones with one bulk statement each first; cascading the
+    // removal would load every note and delete them row by row. Returns the per-day count
+    // of the deleted notes for the dashboard counters.
+    private List<NoteRepository.DayCount> deleteWithNotes(Users user) {
+        List<NoteRepository.DayCount> deletedNotes = transactionTemplate.execute(status -> {
+            List<NoteRepository.DayCount> perDay = noteRepository.countPerDayByUserId(user.getId());
+            noteRepository.deleteAllByUserId(user.getId());
+            noteTombstoneRepository.deleteAllByUserId(user.getId());
+            userRepository.delete(user);
+            return perDay;
+        });
+        noteEventBroadcaster.disconnect(user.getId());
+        return deletedNotes;
     }
     
     public long countUsers() {
@@ -0,0 +1,113 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update plus the statements
+-- DatabaseSchemaInitializer ran at boot. Written to be idempotent: databases created before
+-- Flyway are baselined at version 0 (spring.flyway.baseline-on-migrate), so this script also
+-- runs against them and only fills in what is missing.
+
+CREATE SEQUENCE IF NOT EXISTS notes_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS users (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    username varchar(255),
+    email varchar(255),
+    password varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    profile_link varchar(255),
+    role varchar(255) NOT NULL CHECK (role IN ('USER', 'ADMIN')),
+    created_at timestamp(6),
+    last_login timestamp(6),
+    version bigint,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE users
+    ADD COLUMN IF NOT EXISTS profile_link varchar(255),
+    ADD COLUMN IF NOT EXISTS created_at timestamp(6),
+    ADD COLUMN IF NOT EXISTS last_login timestamp(6),
+    ADD COLUMN IF NOT EXISTS version bigint,
+    -- Per-user change counter used by NoteChangeSequence. Deliberately not mapped on
+    -- Users, so saving a stale Users entity can never move it backwards.
+    ADD COLUMN IF NOT EXISTS note_change_seq bigint NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS notes (
+    id bigint NOT NULL,
+    title varchar(255),
+    content varchar(255),
+    created_at date,
+    updated_at timestamp(6),
+    change_seq bigint,
+    preview varchar(200),
+    version bigint,
+    user_id bigint NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE notes
+    ADD COLUMN IF NOT EXISTS updated_at timestamp(6),
+    ADD COLUMN IF NOT EXISTS change_seq bigint,
+    ADD COLUMN IF NOT EXISTS preview varchar(200),
+    ADD COLUMN IF NOT EXISTS version bigint;
+
+CREATE TABLE IF NOT EXISTS note_tombstones (
+    id bigint NOT NULL,
+    user_id bigint NOT NULL,
+    change_seq bigint NOT NULL,
+    deleted_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Constraints Hibernate may already have created, under these or generated names. An
+-- existing unique constraint on username/email (Hibernate's uk...) is renamed to the name
+-- UserService.translateUniqueViolation expects instead of getting a second one beside it.
+DO $$
+DECLARE
+    col text;
+    target text;
+    existing text;
+BEGIN
+    FOREACH col IN ARRAY ARRAY['username', 'email'] LOOP
+        target := 'users_' || col || '_key';
+        FOR existing IN
+            SELECT c.conname FROM pg_constraint c
+            WHERE c.conrelid = 'users'::regclass AND c.contype = 'u' AND c.conname <> target
+              AND c.conkey = ARRAY[(SELECT a.attnum FROM pg_attribute a
+                                    WHERE a.attrelid = 'users'::regclass AND a.attname = col)]
+        LOOP
+            IF EXISTS (SELECT 1 FROM pg_constraint
+                       WHERE conrelid = 'users'::regclass AND conname = target) THEN
+                EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', existing);
+            ELSE
+                EXECUTE format('ALTER TABLE users RENAME CONSTRAINT %I TO %I', existing, target);
+            END IF;
+        END LOOP;
+        IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                       WHERE conrelid = 'users'::regclass AND conname = target) THEN
+            EXECUTE format('ALTER TABLE users ADD CONSTRAINT %I UNIQUE (%I)', target, col);
+        END IF;
+    END LOOP;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint
+                   WHERE conrelid = 'notes'::regclass AND contype = 'f') THEN
+        ALTER TABLE notes ADD CONSTRAINT notes_user_id_fkey
+            FOREIGN KEY (user_id) REFERENCES users (id);
+    END IF;
+END
+$$;
+
+CREATE INDEX IF NOT EXISTS users_role_idx ON users (role);
+CREATE INDEX IF NOT EXISTS users_created_at_idx ON users (created_at);
+CREATE INDEX IF NOT EXISTS users_last_login_idx ON users (last_login);
+-- Case-insensitive prefix search in the admin user listing
+CREATE INDEX IF NOT EXISTS users_username_lower_idx ON users (lower(username) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS users_email_lower_idx ON users (lower(email) text_pattern_ops);
+
+CREATE INDEX IF NOT EXISTS notes_user_change_idx ON notes (user_id, change_seq);
+-- Must match the expression used by NoteRepository.searchSummariesByUserId
+CREATE INDEX IF NOT EXISTS notes_search_idx ON notes USING GIN
+    (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(content, '')));
+
+CREATE INDEX IF NOT EXISTS note_tombstones_user_change_idx ON note_tombstones (user_id, change_seq);
+CREATE INDEX IF NOT EXISTS note_tombstones_deleted_at_idx ON note_tombstones (deleted_at);
+
+-- Notes ids moved from IDENTITY to notes_seq; never hand out ids below existing rows
+SELECT setval('notes_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM notes) + 50,
+                                    (SELECT last_value FROM notes_seq)));
@@ -0,0 +1,19 @@
+-- Backfills for rows written before the columns they depend on existed. No-ops on a new database.
+
+-- Notes written before the preview column existed (Notes.PREVIEW_LENGTH)
+UPDATE notes SET preview = left(content, 200) WHERE preview IS NULL AND content IS NOT NULL;
+
+-- Rows written before the @Version columns existed
+UPDATE notes SET version = 0 WHERE version IS NULL;
+UPDATE users SET version = 0 WHERE version IS NULL;
+
+-- Number notes written before delta sync, continuing each user's sequence
+UPDATE notes n SET change_seq = s.seq
+FROM (SELECT n2.id, u.note_change_seq + row_number() OVER (PARTITION BY n2.user_id ORDER BY n2.id) AS seq
+      FROM notes n2 JOIN users u ON u.id = n2.user_id
+      WHERE n2.change_seq IS NULL) s
+WHERE n.id = s.id;
+
+UPDATE users u SET note_change_seq = m.seq
+FROM (SELECT user_id, MAX(change_seq) AS seq FROM notes GROUP BY user_id) m
+WHERE u.id = m.user_id AND u.note_change_seq < m.seq;
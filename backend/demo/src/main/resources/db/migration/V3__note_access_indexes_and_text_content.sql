@@ -0,0 +1,12 @@
+-- Note content was varchar(255) under ddl-auto; notes are free text of any length
+ALTER TABLE notes ALTER COLUMN content TYPE text;
+
+-- Rebuilt so the expression is over the text column, matching NoteRepository.searchSummariesByUserId
+DROP INDEX IF EXISTS notes_search_idx;
+CREATE INDEX notes_search_idx ON notes USING GIN
+    (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(content, '')));
+
+-- Ownership checks, findByUser_Id and the id-keyset pages / export (ORDER BY id)
+CREATE INDEX IF NOT EXISTS notes_user_id_idx ON notes (user_id, id);
+-- A user's notes by creation date
+CREATE INDEX IF NOT EXISTS notes_user_created_at_idx ON notes (user_id, created_at);
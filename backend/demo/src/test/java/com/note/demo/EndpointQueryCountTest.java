@@ -0,0 +1,404 @@
+package com.note.demo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.note.demo.model.Notes;
+import com.note.demo.model.Role;
+import com.note.demo.model.Users;
+import com.note.demo.repository.NoteRepository;
+import com.note.demo.repository.UserRepository;
+import com.note.demo.security.CustomUserDetailsService;
+import com.note.demo.security.JwtUtils;
+import com.note.demo.service.NoteImportService;
+import com.note.demo.service.QueryStatsRecorder.RequestStats;
+
+/**
+ * Statement and row budgets per endpoint, measured by the query statistics DataSource proxy
+ * against PostgreSQL. The second-level, query and note count caches are off so
+ * the budgets describe the database path; endpoints that read a user's notes are also run
+ * for a user with a few notes and one with many, and must issue the same statements for
+ * both. Budgets assume the caller's principal is already cached, as it is after the first
+ * request.
+ * <p>
+ * The database is a PostgreSQL container when Docker is available, or an existing database
+ * given with {@code -Dtest.database.url=jdbc:postgresql://host:5432/db} (and optionally
+ * {@code test.database.username} / {@code test.database.password}). With neither the
+ * suite fails instead of being skipped.
+ */
+@SpringBootTest(properties = {
+	"app.diagnostics.query-stats.enabled=true",
+	"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+	"spring.jpa.properties.hibernate.cache.use_query_cache=false",
+	"app.notes.count-cache.enabled=false",
+	"app.jwt.principal-from-claims=false"
+})
+@AutoConfigureMockMvc
+class EndpointQueryCountTest {
+
+	private static final int FEW_NOTES = 3;
+	private static final int MANY_NOTES = 300;
+	private static final int PAGE = 50;
+	// Seeded notes are spread over this many creation days
+	private static final int NOTE_DAYS = 60;
+	private static final String PASSWORD = "query-count-password";
+
+	private static final String DATABASE_URL = System.getProperty("test.database.url");
+
+	private static PostgreSQLContainer<?> postgres;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private NoteRepository noteRepository;
+
+	@Autowired
+	private NoteImportService noteImportService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	private Users fewNotesUser;
+	private Users manyNotesUser;
+	private Users admin;
+
+	@BeforeAll
+	static void requireDatabase() {
+		assertTrue(DATABASE_URL != null || DockerClientFactory.instance().isDockerAvailable(),
+			"EndpointQueryCountTest needs Docker for its PostgreSQL container, or an existing database: "
+				+ "-Dtest.database.url=jdbc:postgresql://host:5432/db");
+	}
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		if (DATABASE_URL != null) {
+			registry.add("spring.datasource.url", () -> DATABASE_URL);
+			registry.add("spring.datasource.username", () -> System.getProperty("test.database.username", "postgres"));
+			registry.add("spring.datasource.password", () -> System.getProperty("test.database.password", ""));
+			return;
+		}
+		// Stopped with the JVM by Testcontainers
+		postgres = new PostgreSQLContainer<>("postgres:15");
+		postgres.start();
+		registry.add("spring.datasource.url", postgres::getJdbcUrl);
+		registry.add("spring.datasource.username", postgres::getUsername);
+		registry.add("spring.datasource.password", postgres::getPassword);
+	}
+
+	@BeforeEach
+	void seed() throws Exception {
+		fewNotesUser = createUser("few", Role.USER, FEW_NOTES);
+		manyNotesUser = createUser("many", Role.USER, MANY_NOTES);
+		admin = createUser("admin", Role.ADMIN, 0);
+	}
+
+	// ==================== NOTE READS ====================
+
+	@Test
+	void countIsOneStatementRegardlessOfNoteCount() throws Exception {
+		// COUNT(*) only: the user id comes from the cached principal
+		RequestStats few = assertBudget(get("/api/notes/count"), fewNotesUser, 1, 1);
+		RequestStats many = assertBudget(get("/api/notes/count"), manyNotesUser, 1, 1);
+		assertSameStatements(few, many);
+	}
+
+	@Test
+	void myNotesReadsOnlyOnePage() throws Exception {
+		// User id + collection ETag + one page of summaries (limit + 1 rows to detect the next page)
+		RequestStats few = assertBudget(get("/api/notes/my-notes").param("limit", "" + PAGE), fewNotesUser, 3, PAGE + 3);
+		RequestStats many = assertBudget(get("/api/notes/my-notes").param("limit", "" + PAGE), manyNotesUser, 3, PAGE + 3);
+		assertSameStatements(few, many);
+	}
+
+	@Test
+	void notesByUserIdReadsOnlyOnePage() throws Exception {
+		// Collection ETag + one page of summaries
+		RequestStats few = assertBudget(get("/api/notes/" + fewNotesUser.getId()).param("limit", "" + PAGE), fewNotesUser, 2, PAGE + 2);
+		RequestStats many = assertBudget(get("/api/notes/" + manyNotesUser.getId()).param("limit", "" + PAGE), manyNotesUser, 2, PAGE + 2);
+		assertSameStatements(few, many);
+	}
+
+	@Test
+	void searchReadsOnlyOnePage() throws Exception {
+		// User lookup + page query + total count
+		RequestStats few = assertBudget(get("/api/notes/search").param("query", "note").param("size", "20"), fewNotesUser, 3, 20 + 2);
+		RequestStats many = assertBudget(get("/api/notes/search").param("query", "note").param("size", "20"), manyNotesUser, 3, 20 + 2);
+		assertSameStatements(few, many);
+	}
+
+	@Test
+	void changesReadsOnlyOnePage() throws Exception {
+		// User id + changed notes + their owner + tombstones, each capped at limit + 1
+		RequestStats few = assertBudget(get("/api/notes/changes").param("limit", "" + PAGE), fewNotesUser, 4, 2 * (PAGE + 1) + 2);
+		RequestStats many = assertBudget(get("/api/notes/changes").param("limit", "" + PAGE), manyNotesUser, 4, 2 * (PAGE + 1) + 2);
+		assertSameStatements(few, many);
+	}
+
+	@Test
+	void singleNoteIsReadWithoutTheCollection() throws Exception {
+		Long noteId = anyNoteId(manyNotesUser);
+		// User id + version for the ETag + the note joined with its owner
+		assertBudget(get("/api/notes/note/" + noteId), manyNotesUser, 3, 3);
+	}
+
+	// ==================== NOTE WRITES ====================
+
+	@Test
+	void createNoteBudget() throws Exception {
+		// User lookup + change sequence + id sequence + insert
+		assertBudget(post("/api/notes/create/")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(json(Map.of("title", "New note", "content", "Created by the query count test"))),
+			manyNotesUser, 4, 4);
+	}
+
+	@Test
+	void updateNoteBudget() throws Exception {
+		Long noteId = anyNoteId(manyNotesUser);
+		// User lookup + note + change sequence + update
+		assertBudget(put("/api/notes/update/" + noteId)
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(json(Map.of("title", "Renamed"))),
+			manyNotesUser, 4, 3);
+	}
+
+	@Test
+	void deleteNoteBudget() throws Exception {
+		Long noteId = anyNoteId(manyNotesUser);
+		// User lookup + note + change sequence + tombstone + delete
+		assertBudget(delete("/api/notes/delete/" + noteId), manyNotesUser, 5, 3);
+	}
+
+	@Test
+	void batchWritesGoOutAsJdbcBatches() throws Exception {
+		List<Long> ids = noteIds(manyNotesUser);
+		List<Map<String, Object>> creates = new ArrayList<>();
+		List<Map<String, Object>> updates = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			creates.add(Map.of("title", "Batch " + i, "content", "Batch content " + i));
+			updates.add(Map.of("id", ids.get(i), "title", "Batch update " + i));
+		}
+		Map<String, Object> batch = Map.of("create", creates, "update", updates, "delete", ids.subList(40, 80));
+		// User lookup, two change sequence reservations, id sequence, one lookup of the
+		// referenced notes and one JDBC batch or statement per kind of write
+		assertBudget(post("/api/notes/batch").contentType(MediaType.APPLICATION_JSON).content(json(batch)),
+			manyNotesUser, 12, 80 + 10);
+	}
+
+	@Test
+	void importIsBatched() throws Exception {
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			ndjson.append(json(Map.of("title", "Imported " + i, "content", "Imported content " + i))).append('\n');
+		}
+		// User lookup, change sequence, ~4 id sequence calls and 200 inserts in 4 JDBC batches
+		assertBudget(post("/api/notes/import").contentType("application/x-ndjson").content(ndjson.toString()),
+			manyNotesUser, 12, 10);
+	}
+
+	@Test
+	void streamingEndpointsOnlyResolveTheUser() throws Exception {
+		// The export body and the event stream are written on other threads after the
+		// request thread returns; only the synchronous part is measured here
+		assertBudget(get("/api/notes/export"), manyNotesUser, 1, 1);
+		assertBudget(get("/api/notes/stream"), manyNotesUser, 1, 1);
+	}
+
+	@Test
+	void exportStreamsEveryNote() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/notes/export")
+			.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateTokenForUser(manyNotesUser)))
+			.andReturn();
+		MvcResult result = mockMvc.perform(asyncDispatch(started)).andReturn();
+
+		assertEquals(200, result.getResponse().getStatus());
+		List<String> lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).lines().toList();
+		assertEquals(MANY_NOTES, lines.size());
+		for (String line : lines) {
+			// Seeded titles end with the owner's name
+			assertTrue(objectMapper.readTree(line).path("title").asText().endsWith(" of " + manyNotesUser.getUsername()), line);
+		}
+	}
+
+	// ==================== AUTH ====================
+
+	@Test
+	void authEndpointBudgets() throws Exception {
+		assertBudget(post("/auth/login")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(json(Map.of("username", manyNotesUser.getUsername(), "password", PASSWORD))),
+			null, 1, 1);
+		// Version stamp + user
+		assertBudget(get("/auth/me"), manyNotesUser, 2, 2);
+		String name = "registered-" + System.nanoTime();
+		assertBudget(post("/auth/register")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(json(Map.of("username", name, "email", name + "@test.local", "password", PASSWORD))),
+			null, 3, 3);
+	}
+
+	@Test
+	void profileUpdateBudget() throws Exception {
+		assertBudget(put("/auth/profile/" + manyNotesUser.getId())
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(json(Map.of("firstName", "Query"))),
+			manyNotesUser, 3, 2);
+	}
+
+	@Test
+	void deletingAnAccountIsIndependentOfItsNotes() throws Exception {
+		// User + per-day note count for the dashboard (one row per day with notes) + bulk note
+		// and tombstone deletes + (now empty) collection + user delete
+		RequestStats few = assertBudget(delete("/auth/profile"), fewNotesUser, 6, 2 + NOTE_DAYS);
+		RequestStats many = assertBudget(delete("/auth/profile"), manyNotesUser, 6, 2 + NOTE_DAYS);
+		assertSameStatements(few, many);
+	}
+
+	// ==================== ADMIN ====================
+
+	@Test
+	void adminReadBudgets() throws Exception {
+		// Page of user summaries + total count
+		assertBudget(get("/api/admin/users").param("size", "20"), admin, 2, 20 + 1);
+		assertBudget(get("/api/admin/users/" + manyNotesUser.getId()), admin, 1, 1);
+		// Served from in-memory counters
+		assertBudget(get("/api/admin/dashboard/stats"), admin, 0, 0);
+		assertBudget(get("/api/admin/system/stats"), admin, 0, 0);
+	}
+
+	@Test
+	void adminWriteBudgets() throws Exception {
+		String name = "created-" + System.nanoTime();
+		assertBudget(post("/api/admin/users")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(json(Map.of("username", name, "email", name + "@test.local", "password", PASSWORD))),
+			admin, 3, 3);
+		assertBudget(put("/api/admin/users/" + fewNotesUser.getId())
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(json(Map.of("lastName", "Changed"))),
+			admin, 3, 2);
+		assertBudget(put("/api/admin/users/" + fewNotesUser.getId() + "/role")
+			.contentType(MediaType.APPLICATION_JSON)
+			.content(json(Map.of("role", "ADMIN"))),
+			admin, 3, 2);
+	}
+
+	@Test
+	void adminDeleteIsIndependentOfNotes() throws Exception {
+		RequestStats few = assertBudget(delete("/api/admin/users/" + fewNotesUser.getId()), admin, 6, 2 + NOTE_DAYS);
+		RequestStats many = assertBudget(delete("/api/admin/users/" + manyNotesUser.getId()), admin, 6, 2 + NOTE_DAYS);
+		assertSameStatements(few, many);
+	}
+
+	// ==================== HELPERS ====================
+
+	private Users createUser(String prefix, Role role, int notes) throws Exception {
+		String name = prefix + "-" + System.nanoTime();
+		Users user = new Users(name, name + "@test.local", passwordEncoder.encode(PASSWORD));
+		user.setRole(role);
+		user.setCreatedAt(LocalDateTime.now());
+		user = userRepository.save(user);
+		if (notes > 0) {
+			StringBuilder ndjson = new StringBuilder();
+			for (int i = 0; i < notes; i++) {
+				ndjson.append(json(Map.of(
+					"title", "Note " + i + " of " + name,
+					"content", ("Paragraph " + i + " of a realistic note body. ").repeat(20),
+					"created_at", LocalDate.now().minusDays(i % NOTE_DAYS).toString()))).append('\n');
+			}
+			noteImportService.importNdjson(user.getId(), new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+		}
+		// Budgets exclude the principal lookup that only the first request of a user pays
+		userDetailsService.loadUserByUsername(name);
+		return user;
+	}
+
+	private RequestStats assertBudget(MockHttpServletRequestBuilder request, Users caller,
+			int maxStatements, long maxRows) throws Exception {
+		if (caller != null) {
+			request.header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateTokenForUser(caller));
+		}
+		MvcResult result = mockMvc.perform(request).andReturn();
+		String call = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+		int status = result.getResponse().getStatus();
+		assertTrue(status < 400, () -> call + " failed with " + status + ": " + contentOf(result));
+
+		RequestStats stats = (RequestStats) result.getRequest().getAttribute(RequestStats.REQUEST_ATTRIBUTE);
+		assertNotNull(stats, call + " was not measured");
+		assertTrue(stats.getStatements() <= maxStatements,
+			() -> call + " ran " + stats.getStatements() + " statements, budget " + maxStatements);
+		assertTrue(stats.getRows() <= maxRows,
+			() -> call + " read " + stats.getRows() + " rows, budget " + maxRows);
+		return stats;
+	}
+
+	private static void assertSameStatements(RequestStats fewNotes, RequestStats manyNotes) {
+		assertEquals(fewNotes.getStatements(), manyNotes.getStatements(),
+			"Statement count grows with the number of notes (" + FEW_NOTES + " vs " + MANY_NOTES + ")");
+	}
+
+	private Long anyNoteId(Users user) {
+		return noteIds(user).get(0);
+	}
+
+	private List<Long> noteIds(Users user) {
+		return noteRepository.findByUser_Id(user.getId()).stream().map(Notes::getId).toList();
+	}
+
+	private String json(Object value) throws Exception {
+		return objectMapper.writeValueAsString(value);
+	}
+
+	private static String contentOf(MvcResult result) {
+		try {
+			return result.getResponse().getContentAsString();
+		} catch (Exception e) {
+			return "<unreadable>";
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.note.demo.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.note.demo.model.Users;
+import com.note.demo.service.NoteExportService;
+import com.note.demo.service.UserService;
+
+/**
+ * The export endpoint through Spring MVC's return value handling: the body is written
+ * asynchronously by the streaming handler and read back after the async dispatch.
+ */
+class NoteControllerExportTest {
+
+	private static final Long USER_ID = 7L;
+	private static final String USERNAME = "exporter";
+	private static final List<String> LINES = List.of(
+		"{\"id\":1,\"title\":\"First\"}",
+		"{\"id\":2,\"title\":\"Second\"}",
+		"{\"id\":3,\"title\":\"Third\"}");
+
+	private NoteExportService noteExportService;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Users user = new Users(USERNAME, USERNAME + "@test.local", "x");
+		user.setId(USER_ID);
+		UserService userService = mock(UserService.class);
+		when(userService.findByUsername(USERNAME)).thenReturn(user);
+
+		noteExportService = mock(NoteExportService.class);
+		when(noteExportService.exportNotes(eq(USER_ID), any(OutputStream.class))).thenAnswer(invocation -> {
+			OutputStream out = invocation.getArgument(1);
+			for (String line : LINES) {
+				out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+			}
+			return (long) LINES.size();
+		});
+
+		NoteController controller = new NoteController();
+		controller.userService = userService;
+		controller.noteExportService = noteExportService;
+		mockMvc = MockMvcBuilders.standaloneSetup(controller)
+			.setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+			.build();
+	}
+
+	@AfterEach
+	void clearAuthentication() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void exportStreamsNdjson() throws Exception {
+		authenticate();
+		MvcResult result = mockMvc.perform(get("/api/notes/export"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		MvcResult streamed = mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+			.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes.ndjson\""))
+			.andReturn();
+
+		assertEquals(LINES, streamed.getResponse().getContentAsString(StandardCharsets.UTF_8).lines().toList());
+	}
+
+	@Test
+	void gzipExportIsAGzipFileOfTheSameLines() throws Exception {
+		authenticate();
+		MvcResult result = mockMvc.perform(get("/api/notes/export").param("gzip", "true"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		MvcResult streamed = mockMvc.perform(asyncDispatch(result))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/gzip"))
+			.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+			.andReturn();
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(streamed.getResponse().getContentAsByteArray()))) {
+			assertEquals(LINES, new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList());
+		}
+	}
+
+	@Test
+	void unauthenticatedExportIsRejectedBeforeStreaming() throws Exception {
+		mockMvc.perform(get("/api/notes/export"))
+			.andExpect(request().asyncNotStarted())
+			.andExpect(status().isUnauthorized());
+
+		verifyNoInteractions(noteExportService);
+	}
+
+	private static void authenticate() {
+		User principal = new User(USERNAME, "", List.of());
+		SecurityContextHolder.getContext().setAuthentication(
+			new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+	}
+}
@@ -0,0 +1,191 @@
+package com.note.demo.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.note.demo.dto.NoteChanges;
+import com.note.demo.model.NoteTombstone;
+import com.note.demo.model.Notes;
+import com.note.demo.repository.NoteRepository;
+import com.note.demo.repository.NoteTombstoneRepository;
+
+/**
+ * Cursor handling and the merge of changed notes and tombstones in NoteSyncService, with
+ * the repositories answering from in-memory lists the way their queries do.
+ */
+class NoteSyncServiceTest {
+
+	private static final Long USER_ID = 7L;
+	private static final long RETENTION_DAYS = 30;
+
+	private final List<Notes> notes = new ArrayList<>();
+	private final List<NoteTombstone> tombstones = new ArrayList<>();
+
+	private NoteRepository noteRepository;
+	private NoteTombstoneRepository noteTombstoneRepository;
+	private NoteSyncService syncService;
+
+	@BeforeEach
+	void setUp() {
+		noteRepository = mock(NoteRepository.class);
+		noteTombstoneRepository = mock(NoteTombstoneRepository.class);
+		when(noteRepository.findChangedSince(eq(USER_ID), anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+			long afterSeq = invocation.getArgument(1);
+			Limit limit = invocation.getArgument(2);
+			return notes.stream()
+				.filter(note -> note.getChange_seq() > afterSeq)
+				.limit(limit.max())
+				.toList();
+		});
+		when(noteTombstoneRepository.findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAsc(eq(USER_ID), anyLong(), any(Limit.class)))
+			.thenAnswer(invocation -> {
+				long afterSeq = invocation.getArgument(1);
+				Limit limit = invocation.getArgument(2);
+				return tombstones.stream()
+					.filter(tombstone -> tombstone.getChangeSeq() > afterSeq)
+					.limit(limit.max())
+					.toList();
+			});
+
+		syncService = new NoteSyncService();
+		syncService.noteRepository = noteRepository;
+		syncService.noteTombstoneRepository = noteTombstoneRepository;
+		ReflectionTestUtils.setField(syncService, "retentionDays", RETENTION_DAYS);
+
+		// Changes 1..5: notes at 1, 3 and 4, deletions at 2 and 5
+		note(101L, 1);
+		tombstone(102L, 2);
+		note(103L, 3);
+		note(104L, 4);
+		tombstone(105L, 5);
+	}
+
+	@Test
+	void cursorRoundTrips() {
+		long[] cursor = NoteChanges.decodeCursor(NoteChanges.encodeCursor(42L, 1_700_000_000_000L));
+		assertEquals(42L, cursor[0]);
+		assertEquals(1_700_000_000_000L, cursor[1]);
+	}
+
+	@Test
+	void absentCursorDecodesToNull() {
+		assertNull(NoteChanges.decodeCursor(null));
+		assertNull(NoteChanges.decodeCursor(" "));
+	}
+
+	@Test
+	void malformedCursorsAreRejected() {
+		for (String cursor : List.of("not base64!", encode("page:1:2"), encode("seq:1"), encode("seq:1:2:3"), encode("seq:a:b"))) {
+			assertThrows(IllegalArgumentException.class, () -> NoteChanges.decodeCursor(cursor), cursor);
+			assertThrows(IllegalArgumentException.class, () -> syncService.getChanges(USER_ID, cursor, 10), cursor);
+		}
+	}
+
+	@Test
+	void fullSyncMergesNotesAndTombstonesInSequenceOrder() {
+		NoteChanges changes = syncService.getChanges(USER_ID, null, 10);
+
+		assertEquals(List.of(101L, 103L, 104L), ids(changes.getUpserts()));
+		assertEquals(List.of(102L, 105L), changes.getDeleted());
+		assertFalse(changes.isHasMore());
+		assertFalse(changes.isReset());
+		assertEquals(5L, NoteChanges.decodeCursor(changes.getNextCursor())[0]);
+	}
+
+	@Test
+	void pagesFollowTheSequenceWithoutGapsOrRepeats() {
+		long startedAt = System.currentTimeMillis() - Duration.ofDays(1).toMillis();
+		String cursor = NoteChanges.encodeCursor(0L, startedAt);
+		List<Long> seen = new ArrayList<>();
+		NoteChanges page;
+		do {
+			page = syncService.getChanges(USER_ID, cursor, 2);
+			List<Long> pageIds = new ArrayList<>(ids(page.getUpserts()));
+			pageIds.addAll(page.getDeleted());
+			assertTrue(pageIds.size() <= 2);
+			seen.addAll(pageIds);
+			long[] next = NoteChanges.decodeCursor(page.getNextCursor());
+			if (page.isHasMore()) {
+				// Not caught up yet: the cursor keeps the time the client started from
+				assertEquals(startedAt, next[1]);
+			} else {
+				assertTrue(next[1] > startedAt);
+			}
+			cursor = page.getNextCursor();
+		} while (page.isHasMore());
+
+		assertEquals(List.of(101L, 102L, 103L, 104L, 105L), seen);
+		assertEquals(5L, NoteChanges.decodeCursor(cursor)[0]);
+	}
+
+	@Test
+	void firstPageStopsAtTheLimit() {
+		NoteChanges changes = syncService.getChanges(USER_ID, null, 3);
+
+		assertEquals(List.of(101L, 103L), ids(changes.getUpserts()));
+		assertEquals(List.of(102L), changes.getDeleted());
+		assertTrue(changes.isHasMore());
+		assertEquals(3L, NoteChanges.decodeCursor(changes.getNextCursor())[0]);
+	}
+
+	@Test
+	void caughtUpClientGetsAnEmptyPageAndKeepsItsPosition() {
+		String cursor = NoteChanges.encodeCursor(5L, System.currentTimeMillis());
+		NoteChanges changes = syncService.getChanges(USER_ID, cursor, 10);
+
+		assertTrue(changes.getUpserts().isEmpty());
+		assertTrue(changes.getDeleted().isEmpty());
+		assertFalse(changes.isHasMore());
+		assertEquals(5L, NoteChanges.decodeCursor(changes.getNextCursor())[0]);
+	}
+
+	@Test
+	void cursorOlderThanTombstoneRetentionRequiresReset() {
+		long syncedAt = System.currentTimeMillis() - Duration.ofDays(RETENTION_DAYS + 1).toMillis();
+		NoteChanges changes = syncService.getChanges(USER_ID, NoteChanges.encodeCursor(3L, syncedAt), 10);
+
+		assertTrue(changes.isReset());
+		assertNull(changes.getNextCursor());
+		verifyNoInteractions(noteRepository, noteTombstoneRepository);
+	}
+
+	private void note(Long id, long changeSeq) {
+		Notes note = new Notes(id, "Note " + id, "Content " + id, LocalDate.now());
+		note.markChanged(changeSeq);
+		notes.add(note);
+	}
+
+	private void tombstone(Long id, long changeSeq) {
+		tombstones.add(new NoteTombstone(id, USER_ID, changeSeq, LocalDateTime.now()));
+	}
+
+	private static List<Long> ids(List<Notes> notes) {
+		return notes.stream().map(Notes::getId).toList();
+	}
+
+	private static String encode(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
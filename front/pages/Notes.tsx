@@ -10,10 +10,12 @@ import Modal from '../components/Modal';
 import { GeminiService } from '../services/geminiService';
 import { API_BASE_URL } from '../config';
 
+// List endpoints return summaries; the full content is fetched per note when opened
 interface Note {
   id: number;
   title: string;
-  content: string;
+  preview?: string;
+  content?: string;
   created_at: string;
 }
 
@@ -38,6 +40,7 @@ const Notes: React.FC = () => {
   const [title, setTitle] = useState('');
   const [content, setContent] = useState('');
   const [saving, setSaving] = useState(false);
+  const [loadingContent, setLoadingContent] = useState(false);
   
   // AI State
   const [isGenerating, setIsGenerating] = useState(false);
@@ -66,7 +69,7 @@ const Notes: React.FC = () => {
         notes.filter(
           (n) =>
             n.title.toLowerCase().includes(lowerQuery) ||
-            (n.content && n.content.toLowerCase().includes(lowerQuery))
+            (n.preview && n.preview.toLowerCase().includes(lowerQuery))
         )
       );
     }
@@ -83,27 +86,35 @@ const Notes: React.FC = () => {
     }
     
     try {
-      const response = await fetch(`${API_BASE_URL}/api/notes/my-notes`, {
-        method: 'GET',
-        headers: {
-          'Content-Type': 'application/json',
-          'Authorization': `Bearer ${token}`,
-        },
-      });
+      // /my-notes is cursor-paginated: follow nextCursor until the last page
+      const allNotes: Note[] = [];
+      let cursor: string | null = null;
+      do {
+        const query = cursor ? `?limit=200&after=${encodeURIComponent(cursor)}` : '?limit=200';
+        const response = await fetch(`${API_BASE_URL}/api/notes/my-notes${query}`, {
+          method: 'GET',
+          headers: {
+            'Content-Type': 'application/json',
+            'Authorization': `Bearer ${token}`,
+          },
+        });
 
-      if (!response.ok) {
-        if (response.status === 401) {
-          console.log('401 Unauthorized, clearing session');
-          localStorage.removeItem('token');
-          localStorage.removeItem('user');
-          window.location.href = '/#/login';
-          return;
+        if (!response.ok) {
+          if (response.status === 401) {
+            console.log('401 Unauthorized, clearing session');
+            localStorage.removeItem('token');
+            localStorage.removeItem('user');
+            window.location.href = '/#/login';
+            return;
+          }
+          throw new Error('Failed to load notes');
         }
-        throw new Error('Failed to load notes');
-      }
 
-      const data = await response.json();
-      setNotes(data || []);
+        const data = await response.json();
+        allNotes.push(...(data.items || []));
+        cursor = data.nextCursor || null;
+      } while (cursor);
+      setNotes(allNotes);
     } catch (error: any) {
       console.error('Error loading notes:', error);
       // Don't redirect on network errors, just show the error
@@ -118,17 +129,49 @@ const Notes: React.FC = () => {
     }
   };
 
-  const handleOpenModal = (note?: Note) => {
-    if (note) {
-      setEditingNote(note);
-      setTitle(note.title);
-      setContent(note.content || '');
-    } else {
+  const loadNoteContent = async (id: number): Promise<string | null> => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/api/notes/note/${id}`, {
+        method: 'GET',
+        headers: {
+          'Content-Type': 'application/json',
+          'Authorization': `Bearer ${getToken()}`,
+        },
+      });
+      if (!response.ok) {
+        throw new Error('Failed to load note');
+      }
+      const data = await response.json();
+      return data.content || '';
+    } catch (error) {
+      console.error('Error loading note:', error);
+      toast.error('Erreur lors du chargement de la note');
+      return null;
+    }
+  };
+
+  const handleOpenModal = async (note?: Note) => {
+    if (!note) {
       setEditingNote(null);
       setTitle('');
       setContent('');
+      setIsModalOpen(true);
+      return;
     }
+
+    setEditingNote(note);
+    setTitle(note.title);
+    setContent(note.preview || '');
+    setLoadingContent(true);
     setIsModalOpen(true);
+    const fullContent = await loadNoteContent(note.id);
+    setLoadingContent(false);
+    if (fullContent === null) {
+      // Never let a truncated preview be saved back as the content
+      handleCloseModal();
+      return;
+    }
+    setContent(fullContent);
   };
 
   const handleCloseModal = () => {
@@ -141,6 +184,9 @@ const Notes: React.FC = () => {
   };
 
   const handleSave = async () => {
+    if (loadingContent) {
+      return;
+    }
     if (!title.trim()) {
       toast.error("Le titre est obligatoire");
       return;
@@ -313,7 +359,7 @@ const Notes: React.FC = () => {
                 <div className="p-6 flex-1 cursor-pointer" onClick={() => handleOpenModal(note)}>
                   <h3 className="text-xl font-bold text-gray-900 mb-2 line-clamp-1">{note.title}</h3>
                   <p className="text-gray-500 text-sm leading-relaxed line-clamp-4 whitespace-pre-wrap">
-                    {note.content || <span className="italic opacity-50">Aucun contenu...</span>}
+                    {note.preview || <span className="italic opacity-50">Aucun contenu...</span>}
                   </p>
                 </div>
                 <div className="px-6 py-4 bg-gray-50/50 border-t border-gray-100 flex justify-between items-center rounded-b-xl">
@@ -352,7 +398,7 @@ const Notes: React.FC = () => {
         footer={
           <>
             <Button variant="ghost" onClick={handleCloseModal}>Annuler</Button>
-            <Button onClick={handleSave} icon={<Save className="w-4 h-4" />} isLoading={saving}>Enregistrer</Button>
+            <Button onClick={handleSave} icon={<Save className="w-4 h-4" />} isLoading={saving || loadingContent}>Enregistrer</Button>
           </>
         }
       >
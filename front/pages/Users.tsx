@@ -68,30 +68,39 @@ const Users: React.FC = () => {
   const loadUsers = async () => {
     setLoading(true);
     try {
-      const response = await fetch(`${API_BASE_URL}/api/admin/users`, {
-        method: 'GET',
-        headers: {
-          'Content-Type': 'application/json',
-          'Authorization': `Bearer ${getToken()}`,
-        },
-      });
-
-      if (!response.ok) {
-        if (response.status === 401) {
-          localStorage.removeItem('token');
-          localStorage.removeItem('user');
-          window.location.href = '/#/login';
-          return;
-        }
-        if (response.status === 403) {
-          toast.error("Accès refusé. Vous n'êtes pas administrateur.");
-          return;
+      // /api/admin/users is paginated: walk the pages until hasMore is false
+      const allUsers: User[] = [];
+      let page = 0;
+      let hasMore = true;
+      while (hasMore) {
+        const response = await fetch(`${API_BASE_URL}/api/admin/users?page=${page}&size=200`, {
+          method: 'GET',
+          headers: {
+            'Content-Type': 'application/json',
+            'Authorization': `Bearer ${getToken()}`,
+          },
+        });
+
+        if (!response.ok) {
+          if (response.status === 401) {
+            localStorage.removeItem('token');
+            localStorage.removeItem('user');
+            window.location.href = '/#/login';
+            return;
+          }
+          if (response.status === 403) {
+            toast.error("Accès refusé. Vous n'êtes pas administrateur.");
+            return;
+          }
+          throw new Error('Failed to load users');
         }
-        throw new Error('Failed to load users');
-      }
 
-      const data = await response.json();
-      setUsers(data || []);
+        const data = await response.json();
+        allUsers.push(...(data.items || []));
+        hasMore = !!data.hasMore;
+        page++;
+      }
+      setUsers(allUsers);
     } catch (error: any) {
       toast.error(error.message || 'Erreur lors du chargement des utilisateurs');
       setUsers([]);